@@ -0,0 +1,137 @@
+package com.furasuta.emergencyescape.api;
+
+import java.util.UUID;
+
+/**
+ * One published combat event. Instances are owned by the stream and reused: a listener may only
+ * read the event during its callback, and must copy out whatever it wants to keep.
+ * Fields that do not apply to the event type are 0, or -1 for the attacker id.
+ */
+public class CombatEvent {
+    public static final int NO_ATTACKER = -1;
+
+    private CombatEventType type;
+    private long gameTime;
+    private int entityId;
+    private long uuidMost;
+    private long uuidLeast;
+    private int attackerId;
+    private float headDamage;
+    private float bodyDamage;
+    private float headHealth;
+    private float bodyHealth;
+    private float amount;
+
+    CombatEvent() {
+    }
+
+    public CombatEventType getType() {
+        return type;
+    }
+
+    public long getGameTime() {
+        return gameTime;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public long getUuidMostSignificantBits() {
+        return uuidMost;
+    }
+
+    public long getUuidLeastSignificantBits() {
+        return uuidLeast;
+    }
+
+    /**
+     * Allocates, prefer comparing the bits on hot paths.
+     */
+    public UUID getUuid() {
+        return new UUID(uuidMost, uuidLeast);
+    }
+
+    public int getAttackerId() {
+        return attackerId;
+    }
+
+    public float getHeadDamage() {
+        return headDamage;
+    }
+
+    public float getBodyDamage() {
+        return bodyDamage;
+    }
+
+    public float getHeadHealth() {
+        return headHealth;
+    }
+
+    public float getBodyHealth() {
+        return bodyHealth;
+    }
+
+    public float getAmount() {
+        return amount;
+    }
+
+    // Setters for CombatEventStream.Writer, not visible to listeners holding a live slot
+
+    CombatEvent player(int entityId, long uuidMost, long uuidLeast) {
+        this.entityId = entityId;
+        this.uuidMost = uuidMost;
+        this.uuidLeast = uuidLeast;
+        return this;
+    }
+
+    CombatEvent attacker(int attackerId) {
+        this.attackerId = attackerId;
+        return this;
+    }
+
+    CombatEvent damage(float headDamage, float bodyDamage) {
+        this.headDamage = headDamage;
+        this.bodyDamage = bodyDamage;
+        return this;
+    }
+
+    CombatEvent health(float headHealth, float bodyHealth) {
+        this.headHealth = headHealth;
+        this.bodyHealth = bodyHealth;
+        return this;
+    }
+
+    CombatEvent amount(float amount) {
+        this.amount = amount;
+        return this;
+    }
+
+    void reset(CombatEventType type, long gameTime) {
+        this.type = type;
+        this.gameTime = gameTime;
+        this.entityId = 0;
+        this.uuidMost = 0;
+        this.uuidLeast = 0;
+        this.attackerId = NO_ATTACKER;
+        this.headDamage = 0;
+        this.bodyDamage = 0;
+        this.headHealth = 0;
+        this.bodyHealth = 0;
+        this.amount = 0;
+    }
+
+    void copyFrom(CombatEvent other) {
+        this.type = other.type;
+        this.gameTime = other.gameTime;
+        this.entityId = other.entityId;
+        this.uuidMost = other.uuidMost;
+        this.uuidLeast = other.uuidLeast;
+        this.attackerId = other.attackerId;
+        this.headDamage = other.headDamage;
+        this.bodyDamage = other.bodyDamage;
+        this.headHealth = other.headHealth;
+        this.bodyHealth = other.bodyHealth;
+        this.amount = other.amount;
+    }
+}
@@ -0,0 +1,9 @@
+package com.furasuta.emergencyescape.api;
+
+@FunctionalInterface
+public interface CombatEventListener {
+    /**
+     * @param event Reused after the call returns, copy out anything to keep
+     */
+    void onEvent(CombatEvent event);
+}
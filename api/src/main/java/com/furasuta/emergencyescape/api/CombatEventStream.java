@@ -0,0 +1,209 @@
+package com.furasuta.emergencyescape.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Stream of combat events for other mods, backed by a pre-allocated ring of reusable events.
+ *
+ * The mod publishes on the server thread through the stream's only {@link Writer}, which
+ * allocates nothing and never waits on consumers. Consumers either:
+ * <ul>
+ *   <li>add a {@link CombatEventListener}, called on the server thread at commit, or</li>
+ *   <li>{@link #subscribe} for a {@link Cursor} and {@link #poll} it from their own thread.</li>
+ * </ul>
+ * The ring overwrites the oldest events, so a cursor that falls more than {@link #CAPACITY}
+ * events behind skips ahead and counts what it missed in {@link Cursor#getLostEvents()}.
+ */
+public class CombatEventStream {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CombatEventStream.class);
+
+    public static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+
+    private static class Slot extends CombatEvent {
+        // Sequence of the event in the slot, -1 while it is being written
+        volatile long sequence = -1;
+    }
+
+    private static final Slot[] SLOTS = new Slot[CAPACITY];
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            SLOTS[i] = new Slot();
+        }
+    }
+
+    private static final CombatEventListener[] NO_LISTENERS = new CombatEventListener[0];
+    private static volatile CombatEventListener[] listeners = NO_LISTENERS;
+
+    // Last committed sequence, written by the server thread only
+    private static volatile long published = -1;
+    private static Writer writer = null;
+
+    public static synchronized void addListener(CombatEventListener listener) {
+        CombatEventListener[] current = listeners;
+        CombatEventListener[] updated = new CombatEventListener[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    public static synchronized void removeListener(CombatEventListener listener) {
+        CombatEventListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                CombatEventListener[] updated = new CombatEventListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return A cursor positioned after the latest event, to be polled by a single thread
+     */
+    public static Cursor subscribe() {
+        return new Cursor(published + 1);
+    }
+
+    /**
+     * Delivers the events published since the last poll to the handler, on the calling thread.
+     *
+     * @return The number of events delivered
+     */
+    public static int poll(Cursor cursor, CombatEventListener handler, int maxEvents) {
+        int delivered = 0;
+        while (delivered < maxEvents && cursor.next <= published) {
+            long expected = cursor.next;
+            Slot slot = SLOTS[(int) (expected & MASK)];
+
+            long before = slot.sequence;
+            if (before == expected) {
+                cursor.event.copyFrom(slot);
+                // Make sure the copy is not read after the sequence is checked again
+                VarHandle.loadLoadFence();
+                if (slot.sequence == expected) {
+                    cursor.next++;
+                    delivered++;
+                    handler.onEvent(cursor.event);
+                    continue;
+                }
+            }
+
+            // Overwritten by a newer event, skip to the oldest one still in the ring
+            long oldest = Math.max(expected + 1, published - CAPACITY + 1);
+            cursor.lost += oldest - expected;
+            cursor.next = oldest;
+        }
+        return delivered;
+    }
+
+    /**
+     * Hands out the stream's writer. Called once by the mod during construction, so addons can
+     * read the stream but not publish into it.
+     *
+     * @throws IllegalStateException if the writer was already taken
+     */
+    public static synchronized Writer install() {
+        if (writer != null) {
+            throw new IllegalStateException("The combat event stream already has a writer");
+        }
+        writer = new Writer();
+        return writer;
+    }
+
+    /**
+     * Publishing side of the stream, server thread only. Claim a slot, fill it through the
+     * chained setters and {@link #commit} it.
+     */
+    public static final class Writer {
+        private Slot claimed = null;
+
+        private Writer() {
+        }
+
+        /**
+         * Claims the next slot for publishing.
+         */
+        public Writer claim(CombatEventType type, long gameTime) {
+            Slot slot = SLOTS[(int) ((published + 1) & MASK)];
+            slot.sequence = -1;
+            // Readers must see the slot invalidated before any field changes
+            VarHandle.storeStoreFence();
+            slot.reset(type, gameTime);
+            claimed = slot;
+            return this;
+        }
+
+        public Writer player(int entityId, long uuidMost, long uuidLeast) {
+            claimed.player(entityId, uuidMost, uuidLeast);
+            return this;
+        }
+
+        public Writer attacker(int attackerId) {
+            claimed.attacker(attackerId);
+            return this;
+        }
+
+        public Writer damage(float headDamage, float bodyDamage) {
+            claimed.damage(headDamage, bodyDamage);
+            return this;
+        }
+
+        public Writer health(float headHealth, float bodyHealth) {
+            claimed.health(headHealth, bodyHealth);
+            return this;
+        }
+
+        public Writer amount(float amount) {
+            claimed.amount(amount);
+            return this;
+        }
+
+        /**
+         * Publishes the claimed event and calls the synchronous listeners.
+         */
+        public void commit() {
+            Slot slot = claimed;
+            if (slot == null) return;
+            claimed = null;
+
+            long sequence = published + 1;
+            slot.sequence = sequence;
+            published = sequence;
+
+            for (CombatEventListener listener : listeners) {
+                try {
+                    listener.onEvent(slot);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Combat event listener {} failed", listener, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read position of one asynchronous consumer. Not thread-safe, poll it from one thread.
+     */
+    public static class Cursor {
+        private final CombatEvent event = new CombatEvent();
+        private long next;
+        private long lost = 0;
+
+        private Cursor(long next) {
+            this.next = next;
+        }
+
+        /**
+         * @return Events overwritten before this cursor could read them
+         */
+        public long getLostEvents() {
+            return lost;
+        }
+    }
+}
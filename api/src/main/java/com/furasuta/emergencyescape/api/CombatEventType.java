@@ -0,0 +1,14 @@
+package com.furasuta.emergencyescape.api;
+
+public enum CombatEventType {
+    /** Head/body damage was applied. Damage and health fields are set, amount is the full hit damage. */
+    BODY_PART_HIT,
+    /** Escape started because a body part or experience ran out. Amount is the death delay in ticks. */
+    ESCAPE_TRIGGERED,
+    /** Escape started at the player's request. Amount is the death delay in ticks. */
+    VOLUNTARY_ESCAPE,
+    /** A consumption timer drained experience. Amount is the points drained. */
+    EXPERIENCE_DRAIN,
+    /** The escape delay ran out and the player was killed. The attacker is the one credited. */
+    ESCAPE_DEATH
+}
@@ -0,0 +1,66 @@
+package com.furasuta.emergencyescape.api;
+
+import java.util.UUID;
+
+/**
+ * Read-only view of the body part and escape state of online players. A player is enrolled while
+ * they carry the escape item and their body part health is active.
+ *
+ * Call from the server thread only. Point queries allocate nothing; bulk queries fill arrays
+ * owned by the caller, so a scoreboard can reuse the same arrays every tick.
+ */
+public interface CombatStateQuery {
+
+    int NOT_FOUND = -1;
+
+    /** Flag bits filled by {@link #fillEnrolled} */
+    int FLAG_ESCAPING = 1;
+
+    /**
+     * @return The entity id of the online player, or {@link #NOT_FOUND}
+     */
+    int resolve(UUID playerId);
+
+    boolean isEnrolled(int entityId);
+
+    /**
+     * @return Current head health, or NaN if the player is not enrolled
+     */
+    float getHeadHealth(int entityId);
+
+    /**
+     * @return Current body health, or NaN if the player is not enrolled
+     */
+    float getBodyHealth(int entityId);
+
+    /**
+     * @return Maximum head health, or 0 if the player is not enrolled
+     */
+    int getMaxHeadHealth(int entityId);
+
+    /**
+     * @return Maximum body health, or 0 if the player is not enrolled
+     */
+    int getMaxBodyHealth(int entityId);
+
+    boolean isEscaping(int entityId);
+
+    /**
+     * @return Ticks until the escaping player dies, or 0 if not escaping
+     */
+    int getEscapeTicksRemaining(int entityId);
+
+    /**
+     * @return The number of enrolled players, to size the arrays for {@link #fillEnrolled}
+     */
+    int getEnrolledCount();
+
+    /**
+     * Fills the arrays with one entry per enrolled player, stopping when the shortest array is full.
+     * Any array may be null to skip that column.
+     *
+     * @param flags {@link #FLAG_ESCAPING} and so on, per player
+     * @return The number of entries written
+     */
+    int fillEnrolled(int[] entityIds, float[] headHealth, float[] bodyHealth, int[] flags);
+}
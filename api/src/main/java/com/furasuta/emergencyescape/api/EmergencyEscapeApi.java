@@ -0,0 +1,78 @@
+package com.furasuta.emergencyescape.api;
+
+import java.util.UUID;
+
+/**
+ * Entry point for addons. The mod installs its implementation during construction; until then,
+ * or without the mod loaded, queries see no enrolled players. Events are on {@link CombatEventStream}.
+ */
+public final class EmergencyEscapeApi {
+
+    private static final CombatStateQuery EMPTY = new CombatStateQuery() {
+        @Override
+        public int resolve(UUID playerId) {
+            return NOT_FOUND;
+        }
+
+        @Override
+        public boolean isEnrolled(int entityId) {
+            return false;
+        }
+
+        @Override
+        public float getHeadHealth(int entityId) {
+            return Float.NaN;
+        }
+
+        @Override
+        public float getBodyHealth(int entityId) {
+            return Float.NaN;
+        }
+
+        @Override
+        public int getMaxHeadHealth(int entityId) {
+            return 0;
+        }
+
+        @Override
+        public int getMaxBodyHealth(int entityId) {
+            return 0;
+        }
+
+        @Override
+        public boolean isEscaping(int entityId) {
+            return false;
+        }
+
+        @Override
+        public int getEscapeTicksRemaining(int entityId) {
+            return 0;
+        }
+
+        @Override
+        public int getEnrolledCount() {
+            return 0;
+        }
+
+        @Override
+        public int fillEnrolled(int[] entityIds, float[] headHealth, float[] bodyHealth, int[] flags) {
+            return 0;
+        }
+    };
+
+    private static volatile CombatStateQuery query = EMPTY;
+
+    private EmergencyEscapeApi() {
+    }
+
+    public static CombatStateQuery query() {
+        return query;
+    }
+
+    /**
+     * Installed by the mod, not for addons.
+     */
+    public static void setQuery(CombatStateQuery implementation) {
+        query = implementation;
+    }
+}
@@ -0,0 +1,72 @@
+package com.furasuta.emergencyescape.core;
+
+/**
+ * One queued experience consumption: consumes its amount every interval until its duration
+ * runs out. Durations and intervals are in ticks.
+ */
+public class ConsumptionTimer {
+    private final boolean isLargeDamage;
+    private final boolean isInstant;
+    private int remainingDuration;
+    private final int intervalTicks;
+    private int currentIntervalTicks;
+    private final int amount;
+
+    public ConsumptionTimer(boolean isLargeDamage, boolean isInstant, int durationTicks, int intervalTicks, int amount) {
+        this(isLargeDamage, isInstant, durationTicks, intervalTicks, 0, amount);
+    }
+
+    /**
+     * Restores a timer mid-interval, e.g. from a save.
+     */
+    public ConsumptionTimer(boolean isLargeDamage, boolean isInstant, int remainingDuration, int intervalTicks,
+                            int currentIntervalTicks, int amount) {
+        this.isLargeDamage = isLargeDamage;
+        this.isInstant = isInstant;
+        this.remainingDuration = remainingDuration;
+        this.intervalTicks = intervalTicks;
+        this.currentIntervalTicks = currentIntervalTicks;
+        this.amount = amount;
+    }
+
+    public void tick() {
+        remainingDuration--;
+        currentIntervalTicks++;
+    }
+
+    public boolean shouldConsume() {
+        return currentIntervalTicks >= intervalTicks;
+    }
+
+    public void resetInterval() {
+        currentIntervalTicks = 0;
+    }
+
+    public boolean isExpired() {
+        return remainingDuration <= 0;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public boolean isLargeDamage() {
+        return isLargeDamage;
+    }
+
+    public boolean isInstant() {
+        return isInstant;
+    }
+
+    public int getRemainingDuration() {
+        return remainingDuration;
+    }
+
+    public int getIntervalTicks() {
+        return intervalTicks;
+    }
+
+    public int getCurrentIntervalTicks() {
+        return currentIntervalTicks;
+    }
+}
@@ -0,0 +1,72 @@
+package com.furasuta.emergencyescape.core;
+
+/**
+ * Escape state machine: idle, then escaping at a fixed position while a countdown runs,
+ * then due to die once it reaches zero.
+ */
+public class EscapeState {
+    private boolean isEscaping = false;
+    private int ticksRemaining = 0;
+    private double x, y, z;
+
+    public boolean isEscaping() {
+        return isEscaping;
+    }
+
+    public void start(double x, double y, double z, int durationTicks) {
+        this.isEscaping = true;
+        this.ticksRemaining = durationTicks;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public void stop() {
+        this.isEscaping = false;
+        this.ticksRemaining = 0;
+    }
+
+    /**
+     * Counts down one tick while escaping.
+     *
+     * @return true if the state changed
+     */
+    public boolean tick() {
+        if (isEscaping && ticksRemaining > 0) {
+            ticksRemaining--;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean shouldDie() {
+        return isEscaping && ticksRemaining <= 0;
+    }
+
+    public int getTicksRemaining() {
+        return ticksRemaining;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Restores the full state, e.g. from a save.
+     */
+    public void restore(boolean escaping, int ticksRemaining, double x, double y, double z) {
+        this.isEscaping = escaping;
+        this.ticksRemaining = ticksRemaining;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+}
@@ -0,0 +1,35 @@
+package com.furasuta.emergencyescape.core;
+
+/**
+ * Vanilla experience curve, in points.
+ */
+public final class ExperienceMath {
+
+    private ExperienceMath() {
+    }
+
+    /**
+     * @return Points needed to go from this level to the next
+     */
+    public static int forLevel(int level) {
+        if (level >= 30) {
+            return 112 + (level - 30) * 9;
+        } else if (level >= 15) {
+            return 37 + (level - 15) * 5;
+        } else {
+            return 7 + level * 2;
+        }
+    }
+
+    /**
+     * @param progress Fraction of the way to the next level, as shown on the bar
+     * @return Total points for the level and progress
+     */
+    public static int total(int level, float progress) {
+        int totalExp = 0;
+        for (int i = 0; i < level; i++) {
+            totalExp += forLevel(i);
+        }
+        return totalExp + (int) (progress * forLevel(level));
+    }
+}
@@ -0,0 +1,92 @@
+package com.furasuta.emergencyescape.core;
+
+import java.util.Arrays;
+
+/**
+ * Splits blast damage over part categories by how much of each part the source can see.
+ * Each lattice sample of a {@link PartGeometry} is tested against the other parts with the
+ * ray kernel and against terrain through a {@link SegmentTest} supplied by the caller, so
+ * the cost per entity is fixed however many entities one blast hits.
+ */
+public final class ExposureSampler {
+
+    /**
+     * Terrain check for the segment from the origin to origin + delta, in world space.
+     */
+    @FunctionalInterface
+    public interface SegmentTest {
+        boolean isBlocked(double originX, double originY, double originZ, double deltaX, double deltaY, double deltaZ);
+    }
+
+    private ExposureSampler() {
+    }
+
+    /**
+     * Fills out[0, categoryCount) with the damage share of each category, summing to 1.
+     *
+     * @param partCategory Category index of each part
+     * @return false if no sample of any part is visible from the source
+     */
+    public static boolean computeShares(PartGeometry geometry, int[] partCategory, int categoryCount,
+                                        double sourceX, double sourceY, double sourceZ,
+                                        double entityX, double entityY, double entityZ,
+                                        double height, double width, float yaw,
+                                        SegmentTest terrain, float[] out) {
+        // Work in the geometry's local frame, where the part bounds are stored
+        double cos = Math.cos(Math.toRadians(yaw));
+        double sin = Math.sin(Math.toRadians(yaw));
+        double rx = sourceX - entityX, rz = sourceZ - entityZ;
+        double sx = (rx * cos + rz * sin) / width;
+        double sy = (sourceY - entityY) / height;
+        double sz = (rz * cos - rx * sin) / width;
+
+        double[] bounds = geometry.bounds;
+        double[] lattice = geometry.lattice;
+        int partCount = geometry.getPartCount();
+        Arrays.fill(out, 0, categoryCount, 0);
+
+        float total = 0;
+        for (int part = 0; part < partCount; part++) {
+            int start = geometry.latticeStart[part];
+            int end = geometry.latticeStart[part + 1];
+            int visible = 0;
+            for (int i = start; i < end; i += 3) {
+                double dx = lattice[i] - sx, dy = lattice[i + 1] - sy, dz = lattice[i + 2] - sz;
+
+                // Shadowed by another part of the same entity (the ray reaches the sample at t = 1)
+                if (occludedByOtherPart(bounds, partCount, part, sx, sy, sz, dx, dy, dz)) continue;
+
+                // Back to world space for the terrain check
+                double lx = lattice[i] * width, lz = lattice[i + 2] * width;
+                double wx = entityX + lx * cos - lz * sin;
+                double wy = entityY + lattice[i + 1] * height;
+                double wz = entityZ + lx * sin + lz * cos;
+                if (terrain.isBlocked(sourceX, sourceY, sourceZ, wx - sourceX, wy - sourceY, wz - sourceZ)) continue;
+                visible++;
+            }
+
+            float fraction = visible / (float) ((end - start) / 3);
+            out[partCategory[part]] += fraction;
+            total += fraction;
+        }
+
+        if (total <= 0) return false;
+        for (int i = 0; i < categoryCount; i++) {
+            out[i] /= total;
+        }
+        return true;
+    }
+
+    private static boolean occludedByOtherPart(double[] bounds, int partCount, int part,
+                                               double ox, double oy, double oz, double dx, double dy, double dz) {
+        for (int other = 0; other < partCount; other++) {
+            if (other == part) continue;
+            int b = other * 6;
+            if (RayBox.entry(ox, oy, oz, dx, dy, dz,
+                    bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5]) < 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
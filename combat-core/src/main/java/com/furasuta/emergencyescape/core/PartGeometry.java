@@ -0,0 +1,192 @@
+package com.furasuta.emergencyescape.core;
+
+/**
+ * Body-part boxes for one entity shape, compiled to flat primitive arrays.
+ *
+ * Parts are boxes in the entity's local frame: origin at the feet, +z facing the body
+ * direction, +x to the entity's left. X and Z are fractions of the hitbox width, Y is a
+ * fraction of the hitbox height, so one geometry fits any scale of the entity.
+ * Queries move the ray or point into that frame once and then only run slab tests against
+ * the stored bounds, so no boxes are built per call. Parts listed first win ties.
+ */
+public class PartGeometry {
+
+    // Inflation used by point lookups, in blocks
+    private static final double POINT_MARGIN = 0.1;
+    // Explosion samples shared by all parts, so the blast cost per entity does not grow with the layout
+    static final int MAX_LATTICE_SAMPLES = 48;
+
+    private final int partCount;
+    // minX, minY, minZ, maxX, maxY, maxZ per part
+    final double[] bounds;
+    // Union of all parts, tested first so misses cost a single slab test
+    private final double[] union = new double[6];
+
+    // Explosion sample lattice: flattened local {x, y, z} points, part i owns [latticeStart[i], latticeStart[i + 1])
+    final double[] lattice;
+    final int[] latticeStart;
+
+    /**
+     * @param bounds minX, minY, minZ, maxX, maxY, maxZ for each part
+     * @throws IllegalArgumentException if there are more parts than explosion samples
+     */
+    public PartGeometry(double[] bounds) {
+        this.partCount = bounds.length / 6;
+        if (partCount > MAX_LATTICE_SAMPLES) {
+            throw new IllegalArgumentException("At most " + MAX_LATTICE_SAMPLES + " parts are supported, got " + partCount);
+        }
+        this.bounds = bounds.clone();
+
+        for (int axis = 0; axis < 3; axis++) {
+            union[axis] = Double.POSITIVE_INFINITY;
+            union[axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+        for (int i = 0; i < partCount; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                union[axis] = Math.min(union[axis], bounds[i * 6 + axis]);
+                union[axis + 3] = Math.max(union[axis + 3], bounds[i * 6 + axis + 3]);
+            }
+        }
+
+        // One sample per part, the rest of the budget split by volume, so larger parts get more
+        double[] volumes = new double[partCount];
+        double totalVolume = 0;
+        for (int i = 0; i < partCount; i++) {
+            int b = i * 6;
+            volumes[i] = (bounds[b + 3] - bounds[b]) * (bounds[b + 4] - bounds[b + 1]) * (bounds[b + 5] - bounds[b + 2]);
+            totalVolume += volumes[i];
+        }
+        int spare = MAX_LATTICE_SAMPLES - partCount;
+        int[] columns = new int[partCount];
+        int[] rows = new int[partCount];
+        int total = 0;
+        for (int i = 0; i < partCount; i++) {
+            int budget = 1 + (totalVolume > 0 ? (int) (spare * volumes[i] / totalVolume) : 0);
+            boolean tall = bounds[i * 6 + 4] - bounds[i * 6 + 1] > 0.35;
+            // Largest grid within the budget: 2x3x2, 2x2x2, 1x3x1, 1x2x1 or a single center sample
+            if (tall && budget >= 12) {
+                columns[i] = 2;
+                rows[i] = 3;
+            } else if (budget >= 8) {
+                columns[i] = 2;
+                rows[i] = 2;
+            } else if (tall && budget >= 3) {
+                columns[i] = 1;
+                rows[i] = 3;
+            } else {
+                columns[i] = 1;
+                rows[i] = Math.min(budget, 2);
+            }
+            total += columns[i] * rows[i] * columns[i];
+        }
+        assert total <= MAX_LATTICE_SAMPLES : total;
+        this.lattice = new double[total * 3];
+        this.latticeStart = new int[partCount + 1];
+        int index = 0;
+        for (int i = 0; i < partCount; i++) {
+            latticeStart[i] = index;
+            int b = i * 6;
+            for (int x = 0; x < columns[i]; x++) {
+                for (int y = 0; y < rows[i]; y++) {
+                    for (int z = 0; z < columns[i]; z++) {
+                        // Cell centers, so samples stay off the box faces
+                        lattice[index++] = lerp((x + 0.5) / columns[i], bounds[b], bounds[b + 3]);
+                        lattice[index++] = lerp((y + 0.5) / rows[i], bounds[b + 1], bounds[b + 4]);
+                        lattice[index++] = lerp((z + 0.5) / columns[i], bounds[b + 2], bounds[b + 5]);
+                    }
+                }
+            }
+        }
+        latticeStart[partCount] = index;
+    }
+
+    public int getPartCount() {
+        return partCount;
+    }
+
+    /**
+     * @return The index of the closest part the ray enters, or -1 if it misses every part
+     */
+    public int rayHit(double entityX, double entityY, double entityZ, double height, double width, float yaw,
+                      double originX, double originY, double originZ,
+                      double dirX, double dirY, double dirZ) {
+        double cos = Math.cos(Math.toRadians(yaw));
+        double sin = Math.sin(Math.toRadians(yaw));
+        double rx = originX - entityX, rz = originZ - entityZ;
+        double ox = (rx * cos + rz * sin) / width;
+        double oy = (originY - entityY) / height;
+        double oz = (rz * cos - rx * sin) / width;
+        double dx = (dirX * cos + dirZ * sin) / width;
+        double dy = dirY / height;
+        double dz = (dirZ * cos - dirX * sin) / width;
+
+        if (RayBox.entry(ox, oy, oz, dx, dy, dz,
+                union[0], union[1], union[2], union[3], union[4], union[5]) == Double.MAX_VALUE) {
+            return -1;
+        }
+
+        int best = -1;
+        double bestDist = Double.MAX_VALUE;
+        for (int i = 0; i < partCount; i++) {
+            int b = i * 6;
+            double dist = RayBox.entry(ox, oy, oz, dx, dy, dz,
+                    bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5]);
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return The index of the first part containing the point (with a small margin),
+     *         or the part at the point's height if none does
+     */
+    public int partAt(double entityX, double entityY, double entityZ, double height, double width, float yaw,
+                      double x, double y, double z) {
+        double cos = Math.cos(Math.toRadians(yaw));
+        double sin = Math.sin(Math.toRadians(yaw));
+        double rx = x - entityX, rz = z - entityZ;
+        double lx = (rx * cos + rz * sin) / width;
+        double ly = (y - entityY) / height;
+        double lz = (rz * cos - rx * sin) / width;
+        double marginXZ = POINT_MARGIN / width;
+        double marginY = POINT_MARGIN / height;
+
+        for (int i = 0; i < partCount; i++) {
+            int b = i * 6;
+            if (lx >= bounds[b] - marginXZ && lx < bounds[b + 3] + marginXZ
+                    && ly >= bounds[b + 1] - marginY && ly < bounds[b + 4] + marginY
+                    && lz >= bounds[b + 2] - marginXZ && lz < bounds[b + 5] + marginXZ) {
+                return i;
+            }
+        }
+        return partAtHeight(ly);
+    }
+
+    /**
+     * Cheap lookup by height alone.
+     *
+     * @param relativeY Height of the hit as a fraction of the hitbox height
+     * @return The first part spanning that height, or the part closest to it
+     */
+    public int partAtHeight(double relativeY) {
+        int best = -1;
+        double bestGap = Double.MAX_VALUE;
+        for (int i = 0; i < partCount; i++) {
+            double min = bounds[i * 6 + 1];
+            double max = bounds[i * 6 + 4];
+            double gap = relativeY < min ? min - relativeY : relativeY > max ? relativeY - max : 0;
+            if (gap < bestGap) {
+                bestGap = gap;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static double lerp(double delta, double start, double end) {
+        return start + delta * (end - start);
+    }
+}
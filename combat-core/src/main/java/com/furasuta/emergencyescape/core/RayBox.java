@@ -0,0 +1,60 @@
+package com.furasuta.emergencyescape.core;
+
+/**
+ * Ray against axis-aligned box, the kernel under every hit classification.
+ */
+public final class RayBox {
+
+    // Maximum ray length in multiples of the direction
+    public static final double MAX_LENGTH = 10;
+
+    private RayBox() {
+    }
+
+    /**
+     * Slab test of a ray against an axis-aligned box.
+     * Like Minecraft's AABB.clip, a ray starting inside the box does not count as a hit.
+     *
+     * @return The ray parameter where the ray enters the box (in multiples of the direction),
+     *         or Double.MAX_VALUE if it misses within MAX_LENGTH
+     */
+    public static double entry(double originX, double originY, double originZ,
+                               double dirX, double dirY, double dirZ,
+                               double minX, double minY, double minZ,
+                               double maxX, double maxY, double maxZ) {
+        double tEnter = Double.NEGATIVE_INFINITY;
+        double tExit = Double.POSITIVE_INFINITY;
+
+        if (Math.abs(dirX) < 1.0E-7) {
+            if (originX < minX || originX > maxX) return Double.MAX_VALUE;
+        } else {
+            double t1 = (minX - originX) / dirX;
+            double t2 = (maxX - originX) / dirX;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+
+        if (Math.abs(dirY) < 1.0E-7) {
+            if (originY < minY || originY > maxY) return Double.MAX_VALUE;
+        } else {
+            double t1 = (minY - originY) / dirY;
+            double t2 = (maxY - originY) / dirY;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+
+        if (Math.abs(dirZ) < 1.0E-7) {
+            if (originZ < minZ || originZ > maxZ) return Double.MAX_VALUE;
+        } else {
+            double t1 = (minZ - originZ) / dirZ;
+            double t2 = (maxZ - originZ) / dirZ;
+            tEnter = Math.max(tEnter, Math.min(t1, t2));
+            tExit = Math.min(tExit, Math.max(t1, t2));
+        }
+
+        if (tEnter > tExit || tEnter < 0 || tEnter > MAX_LENGTH) {
+            return Double.MAX_VALUE;
+        }
+        return tEnter;
+    }
+}
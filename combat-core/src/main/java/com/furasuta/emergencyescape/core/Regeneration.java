@@ -0,0 +1,23 @@
+package com.furasuta.emergencyescape.core;
+
+/**
+ * Closed-form regeneration: a value known at one tick, regenerating linearly after a delay.
+ * Reading it at any later tick costs the same, so nothing needs to tick while idle.
+ */
+public final class Regeneration {
+
+    private Regeneration() {
+    }
+
+    /**
+     * @param value Value at baseTick
+     * @param ratePerTick Regeneration per tick once the delay has passed, 0 or less for none
+     * @return The value at the given tick, capped at max
+     */
+    public static float valueAt(float value, float max, long baseTick, int delayTicks, float ratePerTick, long now) {
+        if (ratePerTick <= 0 || value >= max) return value;
+
+        long elapsed = now - baseTick - delayTicks;
+        return elapsed <= 0 ? value : Math.min(max, value + ratePerTick * elapsed);
+    }
+}
@@ -0,0 +1,75 @@
+package com.furasuta.emergencyescape.core;
+
+/**
+ * Short history of one entity's positions, hitbox sizes, body rotations and poses, used to
+ * rewind it to where a lagging attacker saw it. Samples are stored in preallocated parallel
+ * primitive arrays, so recording and rewinding never allocate.
+ */
+public class RewindHistory {
+
+    // Ticks of history kept per entity, must cover the maximum lag compensation
+    public static final int CAPACITY = 32;
+
+    private final long[] ticks = new long[CAPACITY];
+    private final double[] x = new double[CAPACITY];
+    private final double[] y = new double[CAPACITY];
+    private final double[] z = new double[CAPACITY];
+    private final double[] height = new double[CAPACITY];
+    private final double[] width = new double[CAPACITY];
+    private final float[] yaw = new float[CAPACITY];
+    private final byte[] pose = new byte[CAPACITY];
+    private int head = 0; // Index of the next write
+    private int size = 0;
+
+    public void record(long tick, double x, double y, double z, double height, double width, float yaw, int pose) {
+        this.ticks[head] = tick;
+        this.x[head] = x;
+        this.y[head] = y;
+        this.z[head] = z;
+        this.height[head] = height;
+        this.width[head] = width;
+        this.yaw[head] = yaw;
+        this.pose[head] = (byte) pose;
+        head = (head + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+    }
+
+    /**
+     * Fills the sample with the newest entry recorded at or before targetTick,
+     * or the oldest entry if the history does not reach back that far.
+     *
+     * @return false if nothing was recorded yet
+     */
+    public boolean rewind(long targetTick, Sample out) {
+        if (size == 0) return false;
+
+        int index = (head - 1 + CAPACITY) % CAPACITY;
+        for (int i = 1; i < size && ticks[index] > targetTick; i++) {
+            index = (index - 1 + CAPACITY) % CAPACITY;
+        }
+        out.x = x[index];
+        out.y = y[index];
+        out.z = z[index];
+        out.height = height[index];
+        out.width = width[index];
+        out.yaw = yaw[index];
+        out.pose = pose[index];
+        out.rewoundTicks = (int) (ticks[(head - 1 + CAPACITY) % CAPACITY] - ticks[index]);
+        return true;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Mutable output of a rewind, reused by the caller.
+     */
+    public static class Sample {
+        public double x, y, z, height, width;
+        public float yaw;
+        public int pose;
+        public int rewoundTicks;
+    }
+}
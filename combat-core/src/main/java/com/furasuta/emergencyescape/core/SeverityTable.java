@@ -0,0 +1,154 @@
+package com.furasuta.emergencyescape.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Maps the damage of a hit to experience consumption through severity tiers, compiled into
+ * parallel primitive arrays sorted by threshold. A hit costs one binary search.
+ */
+public class SeverityTable {
+
+    /**
+     * Receives the consumption timers queued for a hit, durations and intervals in ticks.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void addConsumption(boolean isLargeDamage, boolean isInstant, int durationTicks, int intervalTicks, int amount);
+    }
+
+    // Fields of a tier as parsed, durations and intervals in seconds
+    public static final int TIER_FIELDS = 7;
+
+    public static final SeverityTable EMPTY = compile(List.of(), false);
+
+    private final double[] thresholds;
+    // All in ticks except amounts, in experience points
+    private final int[] instantDuration;
+    private final int[] instantInterval;
+    private final int[] instantAmount;
+    private final int[] sustainedDuration;
+    private final int[] sustainedInterval;
+    private final int[] sustainedAmount;
+    private final boolean interpolate;
+
+    private SeverityTable(int size, boolean interpolate) {
+        thresholds = new double[size];
+        instantDuration = new int[size];
+        instantInterval = new int[size];
+        instantAmount = new int[size];
+        sustainedDuration = new int[size];
+        sustainedInterval = new int[size];
+        sustainedAmount = new int[size];
+        this.interpolate = interpolate;
+    }
+
+    /**
+     * @param tiers Each {minDamage, instantSeconds, instantInterval, instantAmount,
+     *              sustainedSeconds, sustainedInterval, sustainedAmount}, in any order
+     */
+    public static SeverityTable compile(List<double[]> tiers, boolean interpolate) {
+        List<double[]> sorted = new ArrayList<>(tiers);
+        sorted.sort(Comparator.comparingDouble(tier -> tier[0]));
+
+        SeverityTable table = new SeverityTable(sorted.size(), interpolate);
+        for (int i = 0; i < sorted.size(); i++) {
+            double[] tier = sorted.get(i);
+            table.thresholds[i] = tier[0];
+            table.instantDuration[i] = (int) (tier[1] * 20);
+            table.instantInterval[i] = Math.max(1, (int) (tier[2] * 20));
+            table.instantAmount[i] = (int) tier[3];
+            table.sustainedDuration[i] = (int) (tier[4] * 20);
+            table.sustainedInterval[i] = Math.max(1, (int) (tier[5] * 20));
+            table.sustainedAmount[i] = (int) tier[6];
+        }
+        return table;
+    }
+
+    /**
+     * Builds a tier from the legacy per-size settings, a disabled phase gets an amount of 0.
+     */
+    public static double[] legacyTier(double minDamage,
+                                      double instantSeconds, double instantInterval, boolean instantEnabled, int instantAmount,
+                                      double sustainedSeconds, double sustainedInterval, boolean sustainedEnabled, int sustainedAmount) {
+        return new double[]{minDamage,
+                instantSeconds, instantInterval, instantEnabled ? instantAmount : 0,
+                sustainedSeconds, sustainedInterval, sustainedEnabled ? sustainedAmount : 0};
+    }
+
+    /**
+     * Parses "minDamage, instantSeconds, instantInterval, instantAmount, sustainedSeconds, sustainedInterval, sustainedAmount".
+     *
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static double[] parseTier(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != TIER_FIELDS) {
+            throw new IllegalArgumentException("expected " + TIER_FIELDS + " values");
+        }
+        double[] tier = new double[TIER_FIELDS];
+        for (int i = 0; i < TIER_FIELDS; i++) {
+            tier[i] = Double.parseDouble(fields[i].trim());
+        }
+        return tier;
+    }
+
+    public int size() {
+        return thresholds.length;
+    }
+
+    /**
+     * Queues the instant and sustained consumption for a hit of this damage.
+     */
+    public void apply(float damage, Sink sink) {
+        int tier = find(damage);
+        if (tier < 0) return;
+
+        int next = tier + 1;
+        double progress = 0;
+        if (interpolate && next < thresholds.length) {
+            progress = (damage - thresholds[tier]) / (thresholds[next] - thresholds[tier]);
+        } else {
+            next = tier;
+        }
+
+        // The lowest tier counts as small damage, every other tier as large
+        boolean isLarge = tier > 0;
+        int instantDurationTicks = lerp(progress, instantDuration[tier], instantDuration[next]);
+        int instantAmountPoints = lerp(progress, instantAmount[tier], instantAmount[next]);
+        if (instantAmountPoints > 0 && instantDurationTicks > 0) {
+            sink.addConsumption(isLarge, true, instantDurationTicks,
+                    lerp(progress, instantInterval[tier], instantInterval[next]), instantAmountPoints);
+        }
+
+        // Sustained consumption starts after the instant phase
+        int sustainedDurationTicks = lerp(progress, sustainedDuration[tier], sustainedDuration[next]);
+        int sustainedAmountPoints = lerp(progress, sustainedAmount[tier], sustainedAmount[next]);
+        if (sustainedAmountPoints > 0 && sustainedDurationTicks > 0) {
+            sink.addConsumption(isLarge, false, instantDurationTicks + sustainedDurationTicks,
+                    lerp(progress, sustainedInterval[tier], sustainedInterval[next]), sustainedAmountPoints);
+        }
+    }
+
+    // Index of the highest threshold not above the damage
+    private int find(float damage) {
+        int low = 0;
+        int high = thresholds.length - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= damage) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private static int lerp(double progress, int from, int to) {
+        return (int) Math.round(from + progress * (to - from));
+    }
+}
@@ -0,0 +1,116 @@
+package com.furasuta.emergencyescape.core.bench;
+
+import com.furasuta.emergencyescape.core.PartGeometry;
+import com.furasuta.emergencyescape.core.RewindHistory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures the per-hit cost of lag-compensated classification (history rewind plus the
+ * primitive ray kernel) on a synthetic, fully populated history. Reports the mean and
+ * worst batch cost per hit, and bytes allocated per hit where the JVM can tell.
+ *
+ * <pre>
+ * ./gradlew :combat-core:benchmark --args="--hits 10000000"
+ * </pre>
+ */
+public class LagCompensationBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int WARMUP_HITS = 50_000;
+
+    // The default standing player layout: head, body, legs
+    private static final PartGeometry PLAYER = new PartGeometry(new double[]{
+            -0.4167, 0.72, -0.4167, 0.4167, 1.0, 0.4167,
+            -0.5, 0.31, -0.5, 0.5, 0.72, 0.5,
+            -0.5, 0.0, -0.5, 0.5, 0.31, 0.5
+    });
+
+    public static void main(String[] args) {
+        int hits = 1_000_000;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--hits" -> hits = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Usage: LagCompensationBenchmark [--hits <count>]");
+                    System.exit(2);
+                    return;
+                }
+            }
+        }
+        System.out.println(run(hits));
+    }
+
+    public static String run(int hits) {
+        RewindHistory history = new RewindHistory();
+        Random random = new Random(42);
+        for (int tick = 0; tick < RewindHistory.CAPACITY; tick++) {
+            history.record(tick, tick * 0.2, 64, random.nextDouble(), 1.8, 0.6, random.nextFloat() * 360, 0);
+        }
+
+        // Precomputed inputs so the timed loop only does the work under test
+        int[] ticksBack = new int[BATCH_SIZE];
+        double[] eyeY = new double[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ticksBack[i] = random.nextInt(RewindHistory.CAPACITY);
+            eyeY[i] = 64 + random.nextDouble() * 2;
+        }
+
+        RewindHistory.Sample sample = new RewindHistory.Sample();
+        long newestTick = RewindHistory.CAPACITY - 1;
+        // Head, body, legs, then misses
+        int[] partCounts = new int[PLAYER.getPartCount() + 1];
+
+        // Warm up so the JIT has compiled the kernel before measuring
+        for (int i = 0; i < WARMUP_HITS; i++) {
+            int k = i % BATCH_SIZE;
+            partCounts[slot(hit(history, sample, newestTick - ticksBack[k], eyeY[k]))]++;
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean bean ? bean : null;
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : -1;
+
+        int batches = Math.max(1, hits / BATCH_SIZE);
+        long totalNanos = 0;
+        long worstBatchNanos = 0;
+        for (int b = 0; b < batches; b++) {
+            long start = System.nanoTime();
+            for (int k = 0; k < BATCH_SIZE; k++) {
+                partCounts[slot(hit(history, sample, newestTick - ticksBack[k], eyeY[k]))]++;
+            }
+            long elapsed = System.nanoTime() - start;
+            totalNanos += elapsed;
+            worstBatchNanos = Math.max(worstBatchNanos, elapsed);
+        }
+
+        long allocatedAfter = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : -1;
+        long measuredHits = (long) batches * BATCH_SIZE;
+        String allocation = allocatedBefore >= 0
+                ? String.format(Locale.ROOT, "%.2f bytes/hit", (allocatedAfter - allocatedBefore) / (double) measuredHits)
+                : "allocation n/a";
+
+        return String.format(Locale.ROOT, "Lag compensation: %d hits, mean %.1f ns/hit, worst batch %.1f ns/hit, %s (head %d, body %d, legs %d, none %d)",
+                measuredHits,
+                totalNanos / (double) measuredHits,
+                worstBatchNanos / (double) BATCH_SIZE,
+                allocation,
+                partCounts[0], partCounts[1], partCounts[2], partCounts[3]);
+    }
+
+    private static int hit(RewindHistory history, RewindHistory.Sample sample, long targetTick, double eyeY) {
+        history.rewind(targetTick, sample);
+        // Attacker two blocks away on the X axis looking straight at the rewound victim
+        return PLAYER.rayHit(sample.x, sample.y, sample.z, sample.height, sample.width, sample.yaw,
+                sample.x - 2, eyeY, sample.z, 1, 0, 0);
+    }
+
+    // Misses go in the last slot
+    private static int slot(int part) {
+        return part < 0 ? PLAYER.getPartCount() : part;
+    }
+}
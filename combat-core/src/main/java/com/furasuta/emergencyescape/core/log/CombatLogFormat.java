@@ -0,0 +1,88 @@
+package com.furasuta.emergencyescape.core.log;
+
+/**
+ * Layout of the binary combat log. A log is a directory of segment files named
+ * combat-00000001.eelog upwards, each a sequence of fixed-size little-endian records. The
+ * first record of a segment is its header; an all-zero kind byte marks the unwritten tail.
+ *
+ * Names (weapons, damage sources, dimensions) are stored once per segment in NAME records and
+ * referenced by id, so every segment can be read on its own after older ones are deleted.
+ */
+public final class CombatLogFormat {
+
+    public static final int MAGIC = 0x4C434545; // "EECL"
+    public static final int VERSION = 1;
+    public static final int RECORD_SIZE = 80;
+
+    public static final String SEGMENT_PREFIX = "combat-";
+    public static final String SEGMENT_SUFFIX = ".eelog";
+
+    // Header record
+    public static final int HEADER_MAGIC = 0;
+    public static final int HEADER_VERSION = 4;
+    public static final int HEADER_RECORD_SIZE = 8;
+    public static final int HEADER_CREATED_MILLIS = 16;
+
+    // Record kinds, 0 is never written
+    public static final byte KIND_HIT = 1;
+    public static final byte KIND_ESCAPE = 2;
+    public static final byte KIND_ESCAPE_DEATH = 3;
+    public static final byte KIND_NAME = 4;
+
+    // Body part of a hit, DamageTrace uses the same values for head, body and legs
+    public static final byte PART_HEAD = 0;
+    public static final byte PART_BODY = 1;
+    public static final byte PART_LEGS = 2;
+    public static final byte PART_SPLIT = 3;
+
+    // Cause of an escape, stored in the part byte
+    public static final byte CAUSE_HEAD = 0;
+    public static final byte CAUSE_BODY = 1;
+    public static final byte CAUSE_EXPERIENCE = 2;
+    public static final byte CAUSE_VOLUNTARY = 3;
+
+    // Event records
+    public static final int KIND = 0;
+    public static final int PART = 1;
+    public static final int WEAPON = 4;
+    public static final int WALL_MILLIS = 8;
+    public static final int GAME_TIME = 16;
+    public static final int VICTIM_MOST = 24;
+    public static final int VICTIM_LEAST = 32;
+    public static final int ATTACKER_MOST = 40;
+    public static final int ATTACKER_LEAST = 48;
+    public static final int DAMAGE = 56;
+    public static final int SOURCE = 60;
+    public static final int X = 64;
+    public static final int Y = 68;
+    public static final int Z = 72;
+    public static final int DIMENSION = 76;
+
+    // Name records: kind, UTF-8 length, id, then the bytes
+    public static final int NAME_LENGTH = 1;
+    public static final int NAME_ID = 4;
+    public static final int NAME_BYTES = 8;
+    public static final int NAME_MAX_BYTES = RECORD_SIZE - NAME_BYTES;
+
+    // Name id for "nothing", e.g. a hit without a weapon
+    public static final int NO_NAME = -1;
+
+    private CombatLogFormat() {
+    }
+
+    public static String segmentName(long sequence) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * @return The sequence number of a segment file name, -1 if it is not one
+     */
+    public static long segmentSequence(String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) return -1;
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.furasuta.emergencyescape.core.log;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.furasuta.emergencyescape.core.log.CombatLogFormat.*;
+
+/**
+ * Reads the segments written by {@link CombatLogWriter}. Segments are mapped read-only and
+ * scanned in order, handing every event to a visitor through one reused {@link Entry}.
+ */
+public class CombatLogReader {
+
+    /**
+     * One event record with its names resolved. Reused between calls, copy what you keep.
+     */
+    public static class Entry {
+        public byte kind;
+        public byte part;
+        public long wallMillis;
+        public long gameTime;
+        public long victimMost, victimLeast;
+        public long attackerMost, attackerLeast;
+        public float damage;
+        public float x, y, z;
+        // Null when the record has none
+        public String weapon;
+        public String source;
+        public String dimension;
+
+        public boolean hasAttacker() {
+            return attackerMost != 0 || attackerLeast != 0;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(Entry entry);
+    }
+
+    /**
+     * @param paths Segment files or directories holding them
+     * @return The segment files in write order
+     */
+    public static List<Path> segments(List<Path> paths) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.list(path)) {
+                    files.filter(file -> segmentSequence(file.getFileName().toString()) >= 0).forEach(segments::add);
+                }
+            } else {
+                segments.add(path);
+            }
+        }
+        segments.sort(Comparator.comparingLong(file -> segmentSequence(file.getFileName().toString())));
+        return segments;
+    }
+
+    /**
+     * Visits every event in one segment, stopping at the unwritten tail.
+     *
+     * @throws IOException if the file is not a combat log segment
+     */
+    public static void read(Path segment, Visitor visitor) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < RECORD_SIZE || buffer.getInt(HEADER_MAGIC) != MAGIC) {
+            throw new IOException("Not a combat log segment: " + segment);
+        }
+        if (buffer.getInt(HEADER_VERSION) != VERSION || buffer.getInt(HEADER_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IOException("Unsupported combat log version " + buffer.getInt(HEADER_VERSION) + ": " + segment);
+        }
+
+        List<String> names = new ArrayList<>();
+        Entry entry = new Entry();
+        byte[] nameBytes = new byte[NAME_MAX_BYTES];
+        for (int offset = RECORD_SIZE; offset + RECORD_SIZE <= buffer.capacity(); offset += RECORD_SIZE) {
+            byte kind = buffer.get(offset + KIND);
+            if (kind == 0) break;
+
+            if (kind == KIND_NAME) {
+                int length = Math.min(buffer.get(offset + NAME_LENGTH) & 0xFF, NAME_MAX_BYTES);
+                int id = buffer.getInt(offset + NAME_ID);
+                buffer.get(offset + NAME_BYTES, nameBytes, 0, length);
+                while (names.size() <= id) names.add(null);
+                names.set(id, new String(nameBytes, 0, length, StandardCharsets.UTF_8));
+                continue;
+            }
+
+            entry.kind = kind;
+            entry.part = buffer.get(offset + PART);
+            entry.weapon = lookup(names, buffer.getInt(offset + WEAPON));
+            entry.wallMillis = buffer.getLong(offset + WALL_MILLIS);
+            entry.gameTime = buffer.getLong(offset + GAME_TIME);
+            entry.victimMost = buffer.getLong(offset + VICTIM_MOST);
+            entry.victimLeast = buffer.getLong(offset + VICTIM_LEAST);
+            entry.attackerMost = buffer.getLong(offset + ATTACKER_MOST);
+            entry.attackerLeast = buffer.getLong(offset + ATTACKER_LEAST);
+            entry.damage = buffer.getFloat(offset + DAMAGE);
+            entry.source = lookup(names, buffer.getInt(offset + SOURCE));
+            entry.x = buffer.getFloat(offset + X);
+            entry.y = buffer.getFloat(offset + Y);
+            entry.z = buffer.getFloat(offset + Z);
+            entry.dimension = lookup(names, buffer.getInt(offset + DIMENSION));
+            visitor.accept(entry);
+        }
+    }
+
+    private static String lookup(List<String> names, int id) {
+        return id >= 0 && id < names.size() ? names.get(id) : null;
+    }
+}
@@ -0,0 +1,170 @@
+package com.furasuta.emergencyescape.core.log;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.furasuta.emergencyescape.core.log.CombatLogFormat.*;
+
+/**
+ * Command-line report over a combat log: hit counts and headshot ratio per weapon, hits per
+ * damage source, and escapes per hour.
+ *
+ * <pre>
+ * java -cp emergencyescape-combat-core.jar com.furasuta.emergencyescape.core.log.CombatLogReport \
+ *     world/emergencyescape/combatlog [--since 2024-06-01T18:00] [--until 2024-06-01T22:00]
+ * </pre>
+ */
+public class CombatLogReport {
+
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:00", Locale.ROOT);
+    private static final String NO_WEAPON = "(none)";
+    private static final String USAGE = "Usage: CombatLogReport <segment or directory>... [--since <time>] [--until <time>]";
+
+    // Per weapon: hits, head hits, hits with a known part
+    private final Map<String, long[]> weapons = new HashMap<>();
+    private final Map<String, long[]> sources = new HashMap<>();
+    // Per hour: forced escapes, voluntary escapes, escape deaths
+    private final Map<Long, long[]> hours = new TreeMap<>();
+    private final long[] escapeCauses = new long[4];
+    private long hits = 0;
+    private long escapes = 0;
+    private long deaths = 0;
+    private long firstMillis = Long.MAX_VALUE;
+    private long lastMillis = Long.MIN_VALUE;
+
+    public static void main(String[] args) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        long since = Long.MIN_VALUE;
+        long until = Long.MAX_VALUE;
+        ZoneId zone = ZoneId.systemDefault();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (!option.startsWith("--")) {
+                    paths.add(Path.of(option));
+                    continue;
+                }
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+                String value = args[++i];
+                switch (option) {
+                    case "--since" -> since = parseTime(value, zone);
+                    case "--until" -> until = parseTime(value, zone);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (paths.isEmpty()) throw new IllegalArgumentException("No segment or directory given");
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        CombatLogReport report = new CombatLogReport();
+        long from = since;
+        long to = until;
+        List<Path> segments = CombatLogReader.segments(paths);
+        for (Path segment : segments) {
+            try {
+                CombatLogReader.read(segment, entry -> {
+                    if (entry.wallMillis >= from && entry.wallMillis < to) report.add(entry);
+                });
+            } catch (IOException e) {
+                System.err.println("Skipping " + segment + ": " + e.getMessage());
+            }
+        }
+        report.print(segments.size(), zone);
+    }
+
+    private void add(CombatLogReader.Entry entry) {
+        firstMillis = Math.min(firstMillis, entry.wallMillis);
+        lastMillis = Math.max(lastMillis, entry.wallMillis);
+
+        switch (entry.kind) {
+            case KIND_HIT -> {
+                hits++;
+                long[] weapon = weapons.computeIfAbsent(entry.weapon != null ? entry.weapon : NO_WEAPON, k -> new long[3]);
+                weapon[0]++;
+                if (entry.part == PART_HEAD) weapon[1]++;
+                if (entry.part <= PART_LEGS) weapon[2]++;
+                sources.computeIfAbsent(entry.source != null ? entry.source : "(unknown)", k -> new long[1])[0]++;
+            }
+            case KIND_ESCAPE -> {
+                escapes++;
+                if (entry.part >= 0 && entry.part < escapeCauses.length) escapeCauses[entry.part]++;
+                hour(entry.wallMillis)[entry.part == CAUSE_VOLUNTARY ? 1 : 0]++;
+            }
+            case KIND_ESCAPE_DEATH -> {
+                deaths++;
+                hour(entry.wallMillis)[2]++;
+            }
+            default -> {
+                // Kinds added by later versions
+            }
+        }
+    }
+
+    private long[] hour(long wallMillis) {
+        return hours.computeIfAbsent(wallMillis / 3_600_000L, k -> new long[3]);
+    }
+
+    private void print(int segmentCount, ZoneId zone) {
+        System.out.printf(Locale.ROOT, "%d segments, %d hits, %d escapes, %d escape deaths%n", segmentCount, hits, escapes, deaths);
+        if (hits == 0 && escapes == 0 && deaths == 0) return;
+        System.out.printf(Locale.ROOT, "From %s to %s%n", format(firstMillis, zone), format(lastMillis, zone));
+
+        System.out.println();
+        System.out.println("Hits per weapon                                   hits   headshot");
+        weapons.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                .forEach(e -> {
+                    long[] v = e.getValue();
+                    System.out.printf(Locale.ROOT, "  %-44s %8d   %6.2f%%%n", e.getKey(), v[0], v[2] > 0 ? 100.0 * v[1] / v[2] : 0.0);
+                });
+
+        System.out.println();
+        System.out.println("Hits per damage source                            hits");
+        sources.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                .forEach(e -> System.out.printf(Locale.ROOT, "  %-44s %8d%n", e.getKey(), e.getValue()[0]));
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Escape causes: head %d, body %d, experience %d, voluntary %d%n",
+                escapeCauses[CAUSE_HEAD], escapeCauses[CAUSE_BODY], escapeCauses[CAUSE_EXPERIENCE], escapeCauses[CAUSE_VOLUNTARY]);
+        System.out.println("Escapes per hour                 forced  voluntary     deaths");
+        for (Map.Entry<Long, long[]> e : hours.entrySet()) {
+            long[] v = e.getValue();
+            System.out.printf(Locale.ROOT, "  %-26s %10d %10d %10d%n",
+                    HOUR.format(Instant.ofEpochMilli(e.getKey() * 3_600_000L).atZone(zone)), v[0], v[1], v[2]);
+        }
+    }
+
+    private static String format(long millis, ZoneId zone) {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(zone).withNano(0));
+    }
+
+    // ISO date-time in the local zone, or just a date
+    private static long parseTime(String value, ZoneId zone) {
+        if (value.length() <= 10) {
+            return LocalDate.parse(value).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return LocalDateTime.parse(value).atZone(zone).toInstant().toEpochMilli();
+    }
+}
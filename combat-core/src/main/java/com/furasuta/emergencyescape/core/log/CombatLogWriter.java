@@ -0,0 +1,321 @@
+package com.furasuta.emergencyescape.core.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.furasuta.emergencyescape.core.log.CombatLogFormat.*;
+
+/**
+ * Appends records to a segment-rotated, memory-mapped combat log. Writing a record is a few
+ * stores into the mapped segment, the page cache takes care of getting it to disk.
+ *
+ * Everything that touches the file system runs on a background thread: the next segment is
+ * created and mapped ahead of time, full segments are forced and old ones deleted there. If
+ * the next segment is not ready when the current one fills up, records are dropped and
+ * counted rather than waiting for it.
+ *
+ * Not thread-safe, all writes come from one thread: claim a record with {@link #begin}, fill
+ * it through the chained setters and {@link #commit()} it.
+ */
+public class CombatLogWriter implements Closeable {
+
+    // Slots a commit may use: up to three new names and the event itself
+    private static final int SLOTS_PER_COMMIT = 4;
+
+    private record Segment(long sequence, Path path, MappedByteBuffer buffer) {
+    }
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final int maxSegments;
+    private final Consumer<IOException> onError;
+    private final ExecutorService io;
+
+    // Names written to the current segment, keyed by whatever the caller passes in
+    private final Map<Object, Integer> names = new HashMap<>();
+
+    private Segment current;
+    private int nextRecord;
+    private long nextSequence;
+    private Future<Segment> pending;
+    private long dropped = 0;
+    private boolean closed = false;
+
+    // Record being filled
+    private byte kind;
+    private byte part;
+    private long gameTime;
+    private long victimMost, victimLeast;
+    private long attackerMost, attackerLeast;
+    private float damage;
+    private float x, y, z;
+    private Object weapon, source, dimension;
+
+    /**
+     * Opens a log in the directory, continuing the segment numbering of any log already there.
+     * The first segment is created on the calling thread.
+     *
+     * @param segmentBytes Size of each segment file
+     * @param maxSegments Segments to keep, the oldest are deleted beyond that
+     * @param onError Receives background I/O failures, called from the background thread
+     */
+    public CombatLogWriter(Path directory, int segmentBytes, int maxSegments, Consumer<IOException> onError) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = Math.max(SLOTS_PER_COMMIT + 1, segmentBytes / RECORD_SIZE);
+        this.maxSegments = Math.max(2, maxSegments);
+        this.onError = onError;
+
+        Files.createDirectories(directory);
+        long last = 0;
+        for (long sequence : listSequences()) {
+            last = Math.max(last, sequence);
+        }
+        this.nextSequence = last + 1;
+
+        this.io = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EmergencyEscape Combat Log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.current = prepare(nextSequenceFor());
+        this.nextRecord = 1;
+        this.pending = io.submit(() -> prepare(nextSequenceFor()));
+    }
+
+    /**
+     * Starts a new record, discarding one that was begun but not committed.
+     */
+    public CombatLogWriter begin(byte kind, long gameTime) {
+        this.kind = kind;
+        this.gameTime = gameTime;
+        this.part = 0;
+        this.victimMost = this.victimLeast = 0;
+        this.attackerMost = this.attackerLeast = 0;
+        this.damage = 0;
+        this.x = this.y = this.z = 0;
+        this.weapon = this.source = this.dimension = null;
+        return this;
+    }
+
+    public CombatLogWriter part(byte part) {
+        this.part = part;
+        return this;
+    }
+
+    public CombatLogWriter victim(long most, long least) {
+        this.victimMost = most;
+        this.victimLeast = least;
+        return this;
+    }
+
+    public CombatLogWriter attacker(long most, long least) {
+        this.attackerMost = most;
+        this.attackerLeast = least;
+        return this;
+    }
+
+    public CombatLogWriter damage(float damage) {
+        this.damage = damage;
+        return this;
+    }
+
+    /**
+     * @param dimension Named through toString() the first time it appears in a segment
+     */
+    public CombatLogWriter position(double x, double y, double z, Object dimension) {
+        this.x = (float) x;
+        this.y = (float) y;
+        this.z = (float) z;
+        this.dimension = dimension;
+        return this;
+    }
+
+    /**
+     * @param weapon Named through toString() the first time it appears in a segment, null for none
+     */
+    public CombatLogWriter weapon(Object weapon) {
+        this.weapon = weapon;
+        return this;
+    }
+
+    /**
+     * @param source Named through toString() the first time it appears in a segment, null for none
+     */
+    public CombatLogWriter source(Object source) {
+        this.source = source;
+        return this;
+    }
+
+    /**
+     * Writes the record begun with {@link #begin}.
+     *
+     * @return false if it was dropped because the next segment was not ready yet
+     */
+    public boolean commit() {
+        if (closed) return false;
+        if (segmentRecords - nextRecord < SLOTS_PER_COMMIT && !rotate()) {
+            dropped++;
+            return false;
+        }
+
+        int weaponId = name(weapon);
+        int sourceId = name(source);
+        int dimensionId = name(dimension);
+
+        MappedByteBuffer buffer = current.buffer();
+        int offset = nextRecord++ * RECORD_SIZE;
+        buffer.put(offset + PART, part);
+        buffer.putInt(offset + WEAPON, weaponId);
+        buffer.putLong(offset + WALL_MILLIS, System.currentTimeMillis());
+        buffer.putLong(offset + GAME_TIME, gameTime);
+        buffer.putLong(offset + VICTIM_MOST, victimMost);
+        buffer.putLong(offset + VICTIM_LEAST, victimLeast);
+        buffer.putLong(offset + ATTACKER_MOST, attackerMost);
+        buffer.putLong(offset + ATTACKER_LEAST, attackerLeast);
+        buffer.putFloat(offset + DAMAGE, damage);
+        buffer.putInt(offset + SOURCE, sourceId);
+        buffer.putFloat(offset + X, x);
+        buffer.putFloat(offset + Y, y);
+        buffer.putFloat(offset + Z, z);
+        buffer.putInt(offset + DIMENSION, dimensionId);
+        // Kind last, a reader stops at the first record without one
+        buffer.put(offset + KIND, kind);
+        return true;
+    }
+
+    /**
+     * @return Records dropped so far because a segment was not ready
+     */
+    public long getDroppedRecords() {
+        return dropped;
+    }
+
+    /**
+     * Forces the current segment to disk and stops the background thread. The segment prepared
+     * ahead is deleted, as nothing was written to it.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        Segment last = current;
+        Future<Segment> unused = pending;
+        io.execute(() -> {
+            last.buffer().force();
+            try {
+                Files.deleteIfExists(unused.get().path());
+            } catch (IOException e) {
+                onError.accept(e);
+            } catch (InterruptedException | ExecutionException ignored) {
+                // Nothing was created
+            }
+        });
+        io.shutdown();
+        try {
+            io.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Swaps in the prepared segment if it is ready, never waits for it
+    private boolean rotate() {
+        if (!pending.isDone()) return false;
+
+        Segment next;
+        try {
+            next = pending.get();
+        } catch (InterruptedException | ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                onError.accept(ioException);
+            }
+            // Try again, the next full check retries the rotation
+            pending = io.submit(() -> prepare(nextSequenceFor()));
+            return false;
+        }
+
+        Segment full = current;
+        io.execute(() -> full.buffer().force());
+        current = next;
+        nextRecord = 1;
+        names.clear();
+        pending = io.submit(() -> prepare(nextSequenceFor()));
+        return true;
+    }
+
+    private int name(Object key) {
+        if (key == null) return NO_NAME;
+        Integer existing = names.get(key);
+        if (existing != null) return existing;
+
+        int id = names.size();
+        names.put(key, id);
+
+        byte[] bytes = key.toString().getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, NAME_MAX_BYTES);
+        MappedByteBuffer buffer = current.buffer();
+        int offset = nextRecord++ * RECORD_SIZE;
+        buffer.put(offset + NAME_LENGTH, (byte) length);
+        buffer.putInt(offset + NAME_ID, id);
+        buffer.put(offset + NAME_BYTES, bytes, 0, length);
+        buffer.put(offset + KIND, KIND_NAME);
+        return id;
+    }
+
+    private synchronized long nextSequenceFor() {
+        return nextSequence++;
+    }
+
+    // Creates, maps and stamps a segment, then trims the oldest past the retention limit
+    private Segment prepare(long sequence) throws IOException {
+        Path path = directory.resolve(segmentName(sequence));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping past the end grows the file, the unwritten tail reads as zeros
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(HEADER_MAGIC, MAGIC);
+        buffer.putInt(HEADER_VERSION, VERSION);
+        buffer.putInt(HEADER_RECORD_SIZE, RECORD_SIZE);
+        buffer.putLong(HEADER_CREATED_MILLIS, System.currentTimeMillis());
+
+        List<Long> sequences = listSequences();
+        sequences.sort(null);
+        for (int i = 0; i < sequences.size() - maxSegments; i++) {
+            Files.deleteIfExists(directory.resolve(segmentName(sequences.get(i))));
+        }
+        return new Segment(sequence, path, buffer);
+    }
+
+    private List<Long> listSequences() throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                long sequence = segmentSequence(file.getFileName().toString());
+                if (sequence >= 0) sequences.add(sequence);
+            });
+        }
+        return sequences;
+    }
+}
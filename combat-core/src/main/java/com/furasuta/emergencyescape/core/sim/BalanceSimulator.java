@@ -0,0 +1,281 @@
+package com.furasuta.emergencyescape.core.sim;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Command-line balance simulator for the experience consumption settings.
+ *
+ * Replays synthetic or recorded damage traces through many simulated players in parallel on a
+ * fork/join pool, and reports the experience drained, time until experience runs out and
+ * escape rates for a config file. Sweeps run every combination of the swept settings.
+ *
+ * <pre>
+ * java -cp emergencyescape-combat-core.jar com.furasuta.emergencyescape.core.sim.BalanceSimulator \
+ *     --config run/config/emergencyescape-common.toml --players 1000000 --minutes 10 \
+ *     --sweep general.largeDamage.instant.amount=5,10,20 --sweep general.damage.largeDamageThreshold=4,6
+ * </pre>
+ */
+public class BalanceSimulator {
+
+    // Players per leaf task, large enough to amortize the per-task simulation setup
+    private static final int LEAF_SIZE = 4096;
+
+    private static final String USAGE = String.join("\n",
+            "Options:",
+            "  --config <file>        emergencyescape-common.toml to start from (default: mod defaults)",
+            "  --set <key>=<value>    override one setting, e.g. general.largeDamage.instant.amount=5",
+            "  --sweep <key>=<v1,v2>  run every value, repeatable for a cartesian product",
+            "  --players <n>          simulated players per configuration (default 1000000)",
+            "  --minutes <n>          simulated time per player (default 10)",
+            "  --xp <min>-<max>       starting experience points, uniform (default 100-1500)",
+            "  --trace <file>         recorded traces, CSV trace,tick,damage,part (default: synthetic)",
+            "  --hit-rate <n>         synthetic hits per minute (default 6)",
+            "  --damage <mean>        synthetic mean damage per hit (default 4)",
+            "  --damage-sigma <s>     synthetic log-normal sigma (default 0.6)",
+            "  --head-share <p>       synthetic share of hits on the head (default 0.15)",
+            "  --body-share <p>       synthetic share of hits on the body (default 0.55)",
+            "  --seed <n>             random seed (default 1)",
+            "  --threads <n>          worker threads (default: all cores)");
+
+    /**
+     * Per-run settings that are not part of the mod config.
+     */
+    record Scenario(int players, int horizonTicks, int minXp, int maxXp, long seed,
+                    DamageTrace.Synthetic synthetic, List<DamageTrace> recorded) {
+    }
+
+    /**
+     * Outcome of every simulated player, one slot each.
+     */
+    static class Results {
+        final int[] drained;
+        final int[] zeroTick;
+        final byte[] escapeCause;
+        final int[] escapeTick;
+
+        Results(int players) {
+            drained = new int[players];
+            zeroTick = new int[players];
+            escapeCause = new byte[players];
+            escapeTick = new int[players];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimConfig base = SimConfig.defaults();
+        List<String[]> sweeps = new ArrayList<>();
+        int players = 1_000_000;
+        double minutes = 10;
+        int minXp = 100, maxXp = 1500;
+        Path tracePath = null;
+        double hitRate = 6, meanDamage = 4, damageSigma = 0.6, headShare = 0.15, bodyShare = 0.55;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String[]> overrides = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+                String value = args[++i];
+                switch (option) {
+                    case "--config" -> base = SimConfig.load(Path.of(value));
+                    case "--set" -> overrides.add(splitSetting(value));
+                    case "--sweep" -> sweeps.add(splitSetting(value));
+                    case "--players" -> players = Integer.parseInt(value);
+                    case "--minutes" -> minutes = Double.parseDouble(value);
+                    case "--xp" -> {
+                        String[] range = value.split("-", 2);
+                        minXp = Integer.parseInt(range[0].trim());
+                        maxXp = range.length > 1 ? Integer.parseInt(range[1].trim()) : minXp;
+                    }
+                    case "--trace" -> tracePath = Path.of(value);
+                    case "--hit-rate" -> hitRate = Double.parseDouble(value);
+                    case "--damage" -> meanDamage = Double.parseDouble(value);
+                    case "--damage-sigma" -> damageSigma = Double.parseDouble(value);
+                    case "--head-share" -> headShare = Double.parseDouble(value);
+                    case "--body-share" -> bodyShare = Double.parseDouble(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        // Overrides apply after --config, whatever the order on the command line
+        for (String[] setting : overrides) {
+            base.set(setting[0], setting[1]);
+        }
+
+        List<DamageTrace> recorded = tracePath != null ? DamageTrace.loadRecorded(tracePath) : null;
+        if (recorded != null && recorded.isEmpty()) {
+            System.err.println("No traces in " + tracePath);
+            System.exit(2);
+            return;
+        }
+        Scenario scenario = new Scenario(players, (int) (minutes * 1200), minXp, Math.max(minXp, maxXp), seed,
+                new DamageTrace.Synthetic(hitRate, meanDamage, damageSigma, headShare, bodyShare), recorded);
+
+        System.out.printf(Locale.ROOT, "%d players, %.1f min, %s, %d threads%n", players, minutes,
+                recorded != null ? recorded.size() + " recorded traces"
+                        : String.format(Locale.ROOT, "synthetic %.1f hits/min, mean damage %.1f", hitRate, meanDamage),
+                threads);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Results results = new Results(players);
+        long sweepStart = System.nanoTime();
+        int[] choice = new int[sweeps.size()];
+        do {
+            SimConfig config = base.copy();
+            StringBuilder label = new StringBuilder();
+            for (int s = 0; s < sweeps.size(); s++) {
+                String[] sweep = sweeps.get(s);
+                String value = sweep[1].split(",")[choice[s]].trim();
+                config.set(sweep[0], value);
+                label.append(sweep[0].substring(sweep[0].lastIndexOf('.', sweep[0].lastIndexOf('.') - 1) + 1))
+                        .append('=').append(value).append(' ');
+            }
+
+            long start = System.nanoTime();
+            pool.invoke(new SimulationTask(config, scenario, results, 0, players));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            if (label.length() > 0) {
+                System.out.println();
+                System.out.println(label.toString().trim());
+            }
+            report(results, players, elapsedMs);
+        } while (advance(choice, sweeps));
+
+        if (!sweeps.isEmpty()) {
+            System.out.printf(Locale.ROOT, "%nSweep finished in %.1f s%n", (System.nanoTime() - sweepStart) / 1e9);
+        }
+        pool.shutdown();
+    }
+
+    @SuppressWarnings("serial") // Never serialized, only forked within one pool
+    static class SimulationTask extends RecursiveAction {
+        private final SimConfig config;
+        private final Scenario scenario;
+        private final Results results;
+        private final int from;
+        private final int to;
+
+        SimulationTask(SimConfig config, Scenario scenario, Results results, int from, int to) {
+            this.config = config;
+            this.scenario = scenario;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SimulationTask(config, scenario, results, from, mid),
+                        new SimulationTask(config, scenario, results, mid, to));
+                return;
+            }
+
+            PlayerSimulation simulation = new PlayerSimulation(config, scenario.horizonTicks());
+            DamageTrace synthetic = new DamageTrace();
+            for (int player = from; player < to; player++) {
+                // Seeded per player, so results do not depend on how the work was split
+                SplittableRandom random = new SplittableRandom(scenario.seed() * 0x9E3779B97F4A7C15L + player);
+                int xp = scenario.minXp() + random.nextInt(scenario.maxXp() - scenario.minXp() + 1);
+
+                DamageTrace trace;
+                if (scenario.recorded() != null) {
+                    trace = scenario.recorded().get(random.nextInt(scenario.recorded().size()));
+                } else {
+                    synthetic.generate(scenario.synthetic(), scenario.horizonTicks(), random);
+                    trace = synthetic;
+                }
+
+                simulation.run(trace, xp);
+                results.drained[player] = simulation.drained;
+                results.zeroTick[player] = simulation.zeroTick;
+                results.escapeCause[player] = simulation.escapeCause;
+                results.escapeTick[player] = simulation.escapeTick;
+            }
+        }
+    }
+
+    private static void report(Results results, int players, long elapsedMs) {
+        int[] drained = results.drained.clone();
+        Arrays.sort(drained);
+        long drainedSum = 0;
+        for (int value : drained) drainedSum += value;
+
+        int[] zero = collect(results.zeroTick, players);
+        int[] escape = collect(results.escapeTick, players);
+        int[] causes = new int[4];
+        for (int i = 0; i < players; i++) {
+            causes[results.escapeCause[i]]++;
+        }
+
+        System.out.printf(Locale.ROOT, "  XP drained    mean %.1f  p10 %d  p50 %d  p90 %d  p99 %d%n",
+                drainedSum / (double) players, percentile(drained, 0.10), percentile(drained, 0.50),
+                percentile(drained, 0.90), percentile(drained, 0.99));
+        System.out.printf(Locale.ROOT, "  XP at zero    %.2f%%  after p50 %.1fs  p90 %.1fs%n",
+                100.0 * zero.length / players, percentile(zero, 0.50) / 20.0, percentile(zero, 0.90) / 20.0);
+        System.out.printf(Locale.ROOT, "  Escapes       %.2f%% (head %.2f%%, body %.2f%%, xp %.2f%%)  after p50 %.1fs  p90 %.1fs%n",
+                100.0 * escape.length / players,
+                100.0 * causes[PlayerSimulation.ESCAPE_HEAD] / players,
+                100.0 * causes[PlayerSimulation.ESCAPE_BODY] / players,
+                100.0 * causes[PlayerSimulation.ESCAPE_EXPERIENCE] / players,
+                percentile(escape, 0.50) / 20.0, percentile(escape, 0.90) / 20.0);
+        System.out.printf(Locale.ROOT, "  (%d ms)%n", elapsedMs);
+    }
+
+    // Sorted non-negative ticks, -1 meaning the event never happened
+    private static int[] collect(int[] ticks, int players) {
+        int[] happened = new int[players];
+        int count = 0;
+        for (int i = 0; i < players; i++) {
+            if (ticks[i] >= 0) happened[count++] = ticks[i];
+        }
+        int[] result = Arrays.copyOf(happened, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static int percentile(int[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+    }
+
+    private static String[] splitSetting(String setting) {
+        int eq = setting.indexOf('=');
+        if (eq <= 0) throw new IllegalArgumentException("Expected <key>=<value>: " + setting);
+        String key = setting.substring(0, eq).trim();
+        SimConfig.checkKey(key);
+        return new String[]{key, setting.substring(eq + 1).trim()};
+    }
+
+    // Odometer over the sweep values, false once every combination has run
+    private static boolean advance(int[] choice, List<String[]> sweeps) {
+        for (int s = choice.length - 1; s >= 0; s--) {
+            if (++choice[s] < sweeps.get(s)[1].split(",").length) return true;
+            choice[s] = 0;
+        }
+        return false;
+    }
+}
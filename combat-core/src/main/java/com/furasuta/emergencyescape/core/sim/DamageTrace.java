@@ -0,0 +1,118 @@
+package com.furasuta.emergencyescape.core.sim;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Damage taken by one simulated player: hits sorted by tick, each with its damage and the body
+ * part it landed on. Synthetic traces are generated into a reused instance; recorded traces are
+ * loaded once and shared read-only between threads.
+ */
+public class DamageTrace {
+
+    public static final byte HEAD = 0;
+    public static final byte BODY = 1;
+    public static final byte LEGS = 2;
+
+    int size = 0;
+    int[] ticks = new int[16];
+    float[] damage = new float[16];
+    byte[] parts = new byte[16];
+
+    /**
+     * Parameters for synthetic traces: Poisson hit arrivals with log-normal damage.
+     */
+    public record Synthetic(double hitsPerMinute, double meanDamage, double damageSigma,
+                            double headShare, double bodyShare) {
+    }
+
+    public void add(int tick, float hitDamage, byte part) {
+        if (size == ticks.length) {
+            int capacity = size * 2;
+            ticks = Arrays.copyOf(ticks, capacity);
+            damage = Arrays.copyOf(damage, capacity);
+            parts = Arrays.copyOf(parts, capacity);
+        }
+        ticks[size] = tick;
+        damage[size] = hitDamage;
+        parts[size] = part;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replaces the contents with a synthetic trace up to the horizon.
+     */
+    public void generate(Synthetic params, int horizonTicks, SplittableRandom random) {
+        clear();
+        double meanGap = 1200.0 / params.hitsPerMinute();
+        // Log-normal with the requested mean
+        double mu = Math.log(params.meanDamage()) - params.damageSigma() * params.damageSigma() / 2;
+
+        double tick = -Math.log(1 - random.nextDouble()) * meanGap;
+        while (tick < horizonTicks) {
+            float hitDamage = (float) Math.exp(mu + params.damageSigma() * gaussian(random));
+            double roll = random.nextDouble();
+            byte part = roll < params.headShare() ? HEAD : roll < params.headShare() + params.bodyShare() ? BODY : LEGS;
+            add((int) tick, hitDamage, part);
+            tick += -Math.log(1 - random.nextDouble()) * meanGap;
+        }
+    }
+
+    /**
+     * Loads recorded traces from a CSV of "trace,tick,damage,part" lines, part being head,
+     * body or legs. Lines starting with # are skipped; hits are sorted by tick per trace.
+     */
+    public static List<DamageTrace> loadRecorded(Path file) throws IOException {
+        Map<String, List<double[]>> byTrace = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] fields = line.split(",");
+            if (fields.length < 4) {
+                throw new IOException("Expected trace,tick,damage,part: " + line);
+            }
+            byte part = switch (fields[3].trim().toLowerCase(Locale.ROOT)) {
+                case "head" -> HEAD;
+                case "body" -> BODY;
+                default -> LEGS;
+            };
+            byTrace.computeIfAbsent(fields[0].trim(), k -> new ArrayList<>())
+                    .add(new double[]{Integer.parseInt(fields[1].trim()), Float.parseFloat(fields[2].trim()), part});
+        }
+
+        List<DamageTrace> traces = new ArrayList<>();
+        for (List<double[]> hits : byTrace.values()) {
+            hits.sort((a, b) -> Double.compare(a[0], b[0]));
+            DamageTrace trace = new DamageTrace();
+            for (double[] hit : hits) {
+                trace.add((int) hit[0], (float) hit[1], (byte) hit[2]);
+            }
+            traces.add(trace);
+        }
+        return traces;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller, one value per call is enough here
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+}
@@ -0,0 +1,157 @@
+package com.furasuta.emergencyescape.core.sim;
+
+import com.furasuta.emergencyescape.core.Regeneration;
+import com.furasuta.emergencyescape.core.SeverityTable;
+
+import java.util.Arrays;
+
+/**
+ * Plays one damage trace through the consumption and body part rules, the way the mod does
+ * for a player carrying the escape item. Experience is not stepped tick by tick: each timer
+ * drains an arithmetic series, so the total drained by any tick is a sum over timers, and
+ * the tick where experience runs out is found by binary search between hits.
+ *
+ * Reused across players by one worker thread; nothing is allocated per player once the
+ * timer arrays have grown to fit.
+ */
+class PlayerSimulation implements SeverityTable.Sink {
+
+    static final byte NO_ESCAPE = 0;
+    static final byte ESCAPE_HEAD = 1;
+    static final byte ESCAPE_BODY = 2;
+    static final byte ESCAPE_EXPERIENCE = 3;
+
+    private final SeverityTable table;
+    private final int headMax;
+    private final int bodyMax;
+    private final int regenDelayTicks;
+    private final float regenPerTick;
+    private final int deathDelayTicks;
+    private final int horizonTicks;
+
+    // Active timers as parallel arrays
+    private int timerCount = 0;
+    private int[] timerStart = new int[32];
+    private int[] timerInterval = new int[32];
+    private int[] timerDrains = new int[32];
+    private int[] timerAmount = new int[32];
+    private int currentTick;
+
+    // Results of the last run
+    int drained;
+    int zeroTick;
+    byte escapeCause;
+    int escapeTick;
+
+    PlayerSimulation(SimConfig config, int horizonTicks) {
+        this.table = config.severityTable();
+        this.headMax = config.headMaxHealth();
+        this.bodyMax = config.bodyMaxHealth();
+        this.regenDelayTicks = config.regenDelayTicks();
+        this.regenPerTick = config.regenPerTick();
+        this.deathDelayTicks = config.deathDelayTicks();
+        this.horizonTicks = horizonTicks;
+    }
+
+    void run(DamageTrace trace, int startingExperience) {
+        timerCount = 0;
+        zeroTick = -1;
+        escapeCause = NO_ESCAPE;
+        escapeTick = -1;
+
+        float head = headMax;
+        float body = bodyMax;
+        long lastDamageTick = 0;
+        float rate = 0;
+        int lastCheckedTick = 0;
+        int endTick = horizonTicks;
+
+        for (int i = 0; i < trace.size; i++) {
+            int tick = trace.ticks[i];
+            if (tick >= horizonTicks) break;
+
+            findZero(startingExperience, lastCheckedTick, tick);
+            lastCheckedTick = tick;
+
+            // Body part damage on top of the regeneration since the last hit
+            head = Regeneration.valueAt(head, headMax, lastDamageTick, regenDelayTicks, rate, tick);
+            body = Regeneration.valueAt(body, bodyMax, lastDamageTick, regenDelayTicks, rate, tick);
+            if (trace.parts[i] == DamageTrace.HEAD) {
+                head = Math.max(0, head - trace.damage[i]);
+            } else if (trace.parts[i] == DamageTrace.BODY) {
+                body = Math.max(0, body - trace.damage[i]);
+            }
+            lastDamageTick = tick;
+            rate = regenPerTick;
+
+            currentTick = tick;
+            table.apply(trace.damage[i], this);
+
+            // Same order as the mod: parts first, then experience as it stands at the hit
+            if (head <= 0) {
+                escapeCause = ESCAPE_HEAD;
+            } else if (body <= 0) {
+                escapeCause = ESCAPE_BODY;
+            } else if (startingExperience - drainedBy(tick) <= 0) {
+                escapeCause = ESCAPE_EXPERIENCE;
+            }
+            if (escapeCause != NO_ESCAPE) {
+                // Consumption keeps running until the escape kills the player
+                escapeTick = tick;
+                endTick = Math.min(horizonTicks, tick + deathDelayTicks);
+                break;
+            }
+        }
+
+        findZero(startingExperience, lastCheckedTick, endTick);
+        drained = Math.min(startingExperience, drainedBy(endTick));
+    }
+
+    @Override
+    public void addConsumption(boolean isLargeDamage, boolean isInstant, int durationTicks, int intervalTicks, int amount) {
+        if (timerCount == timerStart.length) {
+            int capacity = timerCount * 2;
+            timerStart = Arrays.copyOf(timerStart, capacity);
+            timerInterval = Arrays.copyOf(timerInterval, capacity);
+            timerDrains = Arrays.copyOf(timerDrains, capacity);
+            timerAmount = Arrays.copyOf(timerAmount, capacity);
+        }
+        timerStart[timerCount] = currentTick;
+        timerInterval[timerCount] = intervalTicks;
+        // The timer consumes every interval while its duration lasts
+        timerDrains[timerCount] = durationTicks / intervalTicks;
+        timerAmount[timerCount] = amount;
+        timerCount++;
+    }
+
+    private int drainedBy(int tick) {
+        long total = 0;
+        for (int t = 0; t < timerCount; t++) {
+            int elapsed = tick - timerStart[t];
+            if (elapsed <= 0) continue;
+            total += (long) timerAmount[t] * Math.min(elapsed / timerInterval[t], timerDrains[t]);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    // Records the first tick in (from, to] where experience reaches zero, if it does
+    private void findZero(int startingExperience, int from, int to) {
+        if (zeroTick >= 0 || drainedBy(to) < startingExperience) return;
+        if (startingExperience <= 0) {
+            zeroTick = from;
+            return;
+        }
+
+        int low = from;
+        int high = to;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (drainedBy(mid) >= startingExperience) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+        zeroTick = high;
+    }
+}
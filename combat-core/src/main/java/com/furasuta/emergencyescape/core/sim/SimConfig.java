@@ -0,0 +1,194 @@
+package com.furasuta.emergencyescape.core.sim;
+
+import com.furasuta.emergencyescape.core.SeverityTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The consumption-related settings of emergencyescape-common.toml, read without Forge.
+ * Keys are the dotted TOML paths, e.g. "general.largeDamage.instant.amount"; anything missing
+ * takes the mod's default. Only the subset of TOML the Forge config writer produces is
+ * understood: [section] headers, key = value lines and string arrays.
+ */
+public class SimConfig {
+
+    // Every setting the simulation reads, the only keys set() accepts
+    private static final Set<String> KEYS = new TreeSet<>(List.of(
+            "general.damage.severityTiers",
+            "general.damage.severityInterpolate",
+            "general.damage.largeDamageThreshold",
+            "general.bodyPartHealth.headMaxHealth",
+            "general.bodyPartHealth.bodyMaxHealth",
+            "general.bodyPartHealth.regenDelay",
+            "general.bodyPartHealth.regenRate",
+            "general.emergencyEscape.deathDelay"));
+    static {
+        for (String size : List.of("general.smallDamage", "general.largeDamage")) {
+            for (String phase : List.of(".instant", ".sustained")) {
+                for (String setting : List.of(".duration", ".interval", ".enabled", ".amount")) {
+                    KEYS.add(size + phase + setting);
+                }
+            }
+        }
+    }
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    public static SimConfig defaults() {
+        return new SimConfig();
+    }
+
+    public static SimConfig load(Path file) throws IOException {
+        SimConfig config = new SimConfig();
+        String section = "";
+        StringBuilder pending = null;
+        String pendingKey = null;
+
+        for (String raw : Files.readAllLines(file)) {
+            String line = stripComment(raw).trim();
+            if (pending != null) {
+                // Continuation of a multi-line array
+                pending.append(line);
+                if (line.endsWith("]")) {
+                    config.values.put(pendingKey, pending.toString());
+                    pending = null;
+                }
+                continue;
+            }
+            if (line.isEmpty()) continue;
+
+            if (line.startsWith("[")) {
+                section = line.substring(1, line.length() - 1).trim() + ".";
+                continue;
+            }
+            int eq = line.indexOf('=');
+            if (eq < 0) continue;
+
+            String key = section + line.substring(0, eq).trim();
+            String value = line.substring(eq + 1).trim();
+            if (value.startsWith("[") && !value.endsWith("]")) {
+                pending = new StringBuilder(value);
+                pendingKey = key;
+            } else {
+                config.values.put(key, value);
+            }
+        }
+        return config;
+    }
+
+    public SimConfig copy() {
+        SimConfig copy = new SimConfig();
+        copy.values.putAll(values);
+        return copy;
+    }
+
+    /**
+     * Overrides one setting, the value in TOML syntax.
+     *
+     * @throws IllegalArgumentException if the simulation does not read the key
+     */
+    public void set(String key, String value) {
+        checkKey(key);
+        values.put(key, value);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the simulation does not read the key, so a typo does not
+     *         silently run the defaults
+     */
+    public static void checkKey(String key) {
+        if (!KEYS.contains(key)) {
+            throw new IllegalArgumentException("Unknown setting " + key + ", expected one of:\n  " + String.join("\n  ", KEYS));
+        }
+    }
+
+    public SeverityTable severityTable() {
+        List<double[]> tiers = new ArrayList<>();
+        for (String line : getStrings("general.damage.severityTiers")) {
+            tiers.add(SeverityTable.parseTier(line));
+        }
+        if (tiers.isEmpty()) {
+            tiers.add(legacyTier("general.smallDamage", 0, 1, 1));
+            tiers.add(legacyTier("general.largeDamage", getDouble("general.damage.largeDamageThreshold", 5), 10, 1));
+        }
+        return SeverityTable.compile(tiers, getBoolean("general.damage.severityInterpolate", false));
+    }
+
+    public int headMaxHealth() {
+        return (int) getDouble("general.bodyPartHealth.headMaxHealth", 10);
+    }
+
+    public int bodyMaxHealth() {
+        return (int) getDouble("general.bodyPartHealth.bodyMaxHealth", 40);
+    }
+
+    public int regenDelayTicks() {
+        return (int) (getDouble("general.bodyPartHealth.regenDelay", 10) * 20);
+    }
+
+    public float regenPerTick() {
+        return (float) (getDouble("general.bodyPartHealth.regenRate", 0.5) / 20.0);
+    }
+
+    public int deathDelayTicks() {
+        return (int) (getDouble("general.emergencyEscape.deathDelay", 4) * 20);
+    }
+
+    // Defaults match ModConfig, only the instant amount differs between the two sizes
+    private double[] legacyTier(String prefix, double minDamage, int defaultInstantAmount, int defaultSustainedAmount) {
+        boolean large = prefix.endsWith("largeDamage");
+        return SeverityTable.legacyTier(minDamage,
+                getDouble(prefix + ".instant.duration", 6),
+                getDouble(prefix + ".instant.interval", 0.5),
+                getBoolean(prefix + ".instant.enabled", true),
+                (int) getDouble(prefix + ".instant.amount", defaultInstantAmount),
+                getDouble(prefix + ".sustained.duration", large ? 90 : 30),
+                getDouble(prefix + ".sustained.interval", large ? 1 : 2),
+                getBoolean(prefix + ".sustained.enabled", true),
+                (int) getDouble(prefix + ".sustained.amount", defaultSustainedAmount));
+    }
+
+    private double getDouble(String key, double fallback) {
+        String value = values.get(key);
+        return value != null ? Double.parseDouble(value) : fallback;
+    }
+
+    private boolean getBoolean(String key, boolean fallback) {
+        String value = values.get(key);
+        return value != null ? Boolean.parseBoolean(value) : fallback;
+    }
+
+    private List<String> getStrings(String key) {
+        List<String> result = new ArrayList<>();
+        String value = values.get(key);
+        if (value == null) return result;
+
+        // ["a", "b"], strings never contain quotes in these settings
+        int start = value.indexOf('"');
+        while (start >= 0) {
+            int end = value.indexOf('"', start + 1);
+            if (end < 0) break;
+            result.add(value.substring(start + 1, end));
+            start = value.indexOf('"', end + 1);
+        }
+        return result;
+    }
+
+    private static String stripComment(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') quoted = !quoted;
+            if (c == '#' && !quoted) return line.substring(0, i);
+        }
+        return line;
+    }
+}
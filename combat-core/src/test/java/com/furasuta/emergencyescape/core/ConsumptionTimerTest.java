@@ -0,0 +1,72 @@
+package com.furasuta.emergencyescape.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsumptionTimerTest {
+
+    // Drives the timer like DamageConsumptionCapability.tick, returns how often it consumed
+    private static int drain(ConsumptionTimer timer) {
+        int drains = 0;
+        for (int tick = 0; tick < 100_000 && !timer.isExpired(); tick++) {
+            timer.tick();
+            if (timer.shouldConsume()) {
+                drains++;
+                timer.resetInterval();
+            }
+        }
+        return drains;
+    }
+
+    @Test
+    void drainsOncePerFullInterval() {
+        assertEquals(5, drain(new ConsumptionTimer(false, false, 100, 20, 3)));
+    }
+
+    @Test
+    void partialIntervalAtTheEndDoesNotDrain() {
+        assertEquals(1, drain(new ConsumptionTimer(false, false, 30, 20, 3)));
+    }
+
+    @Test
+    void durationShorterThanIntervalNeverDrains() {
+        assertEquals(0, drain(new ConsumptionTimer(false, false, 10, 20, 3)));
+    }
+
+    @Test
+    void intervalOfOneDrainsEveryTick() {
+        assertEquals(5, drain(new ConsumptionTimer(false, false, 5, 1, 3)));
+    }
+
+    @Test
+    void restoredTimerContinuesMidInterval() {
+        ConsumptionTimer timer = new ConsumptionTimer(true, false, 10, 20, 15, 3);
+        assertEquals(1, drain(timer));
+        assertEquals(0, timer.getRemainingDuration());
+        assertEquals(5, timer.getCurrentIntervalTicks());
+    }
+
+    @Test
+    void expiresAfterDuration() {
+        ConsumptionTimer timer = new ConsumptionTimer(false, false, 2, 20, 3);
+        assertFalse(timer.isExpired());
+        timer.tick();
+        assertFalse(timer.isExpired());
+        timer.tick();
+        assertTrue(timer.isExpired());
+    }
+
+    @Test
+    void keepsItsSettings() {
+        ConsumptionTimer timer = new ConsumptionTimer(true, true, 40, 10, 7);
+        assertTrue(timer.isLargeDamage());
+        assertTrue(timer.isInstant());
+        assertEquals(40, timer.getRemainingDuration());
+        assertEquals(10, timer.getIntervalTicks());
+        assertEquals(0, timer.getCurrentIntervalTicks());
+        assertEquals(7, timer.getAmount());
+    }
+}
@@ -0,0 +1,82 @@
+package com.furasuta.emergencyescape.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EscapeStateTest {
+
+    @Test
+    void startsIdle() {
+        EscapeState state = new EscapeState();
+        assertFalse(state.isEscaping());
+        assertFalse(state.shouldDie());
+        assertFalse(state.tick());
+        assertEquals(0, state.getTicksRemaining());
+    }
+
+    @Test
+    void countsDownToDeath() {
+        EscapeState state = new EscapeState();
+        state.start(1, 64, -3, 3);
+        assertTrue(state.isEscaping());
+        assertEquals(1, state.getX());
+        assertEquals(64, state.getY());
+        assertEquals(-3, state.getZ());
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(state.shouldDie());
+            assertTrue(state.tick());
+        }
+        assertTrue(state.shouldDie());
+        assertEquals(0, state.getTicksRemaining());
+        // Nothing left to count once it reached zero
+        assertFalse(state.tick());
+        assertTrue(state.shouldDie());
+    }
+
+    @Test
+    void zeroDurationDiesImmediately() {
+        EscapeState state = new EscapeState();
+        state.start(0, 0, 0, 0);
+        assertTrue(state.shouldDie());
+    }
+
+    @Test
+    void stopReturnsToIdle() {
+        EscapeState state = new EscapeState();
+        state.start(0, 0, 0, 1);
+        state.tick();
+        state.stop();
+        assertFalse(state.isEscaping());
+        assertFalse(state.shouldDie());
+        assertFalse(state.tick());
+    }
+
+    @Test
+    void restartResetsCountdown() {
+        EscapeState state = new EscapeState();
+        state.start(0, 0, 0, 5);
+        state.tick();
+        state.start(2, 3, 4, 5);
+        assertEquals(5, state.getTicksRemaining());
+        assertEquals(2, state.getX());
+    }
+
+    @Test
+    void restoreKeepsState() {
+        EscapeState state = new EscapeState();
+        state.restore(true, 7, 1.5, 2.5, 3.5);
+        assertTrue(state.isEscaping());
+        assertEquals(7, state.getTicksRemaining());
+        assertEquals(1.5, state.getX());
+        assertEquals(2.5, state.getY());
+        assertEquals(3.5, state.getZ());
+
+        state.restore(false, 0, 0, 0, 0);
+        assertFalse(state.isEscaping());
+        assertFalse(state.shouldDie());
+    }
+}
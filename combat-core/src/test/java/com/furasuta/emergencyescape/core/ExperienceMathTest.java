@@ -0,0 +1,55 @@
+package com.furasuta.emergencyescape.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExperienceMathTest {
+
+    // Player.getXpNeededForNextLevel, written against experienceLevel
+    private static int vanillaXpNeededForNextLevel(int experienceLevel) {
+        if (experienceLevel >= 30) {
+            return 112 + (experienceLevel - 30) * 9;
+        } else {
+            return experienceLevel >= 15 ? 37 + (experienceLevel - 15) * 5 : 7 + experienceLevel * 2;
+        }
+    }
+
+    @Test
+    void matchesVanillaPerLevel() {
+        for (int level = 0; level <= 1000; level++) {
+            assertEquals(vanillaXpNeededForNextLevel(level), ExperienceMath.forLevel(level), "level " + level);
+        }
+    }
+
+    @Test
+    void curveChangesAtFifteenAndThirty() {
+        assertEquals(7, ExperienceMath.forLevel(0));
+        assertEquals(35, ExperienceMath.forLevel(14));
+        assertEquals(37, ExperienceMath.forLevel(15));
+        assertEquals(107, ExperienceMath.forLevel(29));
+        assertEquals(112, ExperienceMath.forLevel(30));
+    }
+
+    @Test
+    void totalsMatchVanillaTable() {
+        assertEquals(0, ExperienceMath.total(0, 0));
+        assertEquals(315, ExperienceMath.total(15, 0));
+        assertEquals(1395, ExperienceMath.total(30, 0));
+    }
+
+    @Test
+    void totalMatchesSumOfVanillaLevels() {
+        int sum = 0;
+        for (int level = 0; level <= 100; level++) {
+            assertEquals(sum, ExperienceMath.total(level, 0), "level " + level);
+            sum += vanillaXpNeededForNextLevel(level);
+        }
+    }
+
+    @Test
+    void totalAddsProgress() {
+        assertEquals(315 + 18, ExperienceMath.total(15, 0.5f));
+        assertEquals(7 - 1, ExperienceMath.total(0, 0.99f));
+    }
+}
@@ -0,0 +1,140 @@
+package com.furasuta.emergencyescape.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartGeometryTest {
+
+    private static final int HEAD = 0;
+    private static final int BODY = 1;
+    private static final int LEGS = 2;
+
+    // The default standing player layout
+    private static final PartGeometry PLAYER = new PartGeometry(new double[]{
+            -0.4167, 0.72, -0.4167, 0.4167, 1.0, 0.4167,
+            -0.5, 0.31, -0.5, 0.5, 0.72, 0.5,
+            -0.5, 0.0, -0.5, 0.5, 0.31, 0.5
+    });
+
+    private static int shootAlongX(float yaw, double y, double z) {
+        return PLAYER.rayHit(0, 0, 0, 1.8, 0.6, yaw, -2, y, z, 1, 0, 0);
+    }
+
+    @Test
+    void rayHitsPartAtItsHeight() {
+        assertEquals(HEAD, shootAlongX(0, 1.7, 0));
+        assertEquals(BODY, shootAlongX(0, 1.0, 0));
+        assertEquals(LEGS, shootAlongX(0, 0.3, 0));
+    }
+
+    @Test
+    void rayAboveEntityMisses() {
+        assertEquals(-1, shootAlongX(0, 2.5, 0));
+    }
+
+    @Test
+    void rayPointingAwayMisses() {
+        assertEquals(-1, PLAYER.rayHit(0, 0, 0, 1.8, 0.6, 0, -2, 1.0, 0, -1, 0, 0));
+    }
+
+    @Test
+    void rayPastNarrowHeadMisses() {
+        // The head is narrower than the hitbox, 0.28 off center passes beside it
+        assertEquals(-1, shootAlongX(0, 1.7, 0.28));
+    }
+
+    @Test
+    void yawRotatesParts() {
+        // Turned 45 degrees the head's diagonal reaches 0.28 off center
+        assertEquals(HEAD, shootAlongX(45, 1.7, 0.28));
+    }
+
+    @Test
+    void rayHitsClosestPart() {
+        // Looking down through the head, the head is entered before the body
+        assertEquals(HEAD, PLAYER.rayHit(0, 0, 0, 1.8, 0.6, 0, 0, 3, 0, 0, -1, 0));
+    }
+
+    @Test
+    void geometryScalesWithHitbox() {
+        // A giant twice the size has its head at twice the height
+        assertEquals(HEAD, PLAYER.rayHit(0, 0, 0, 3.6, 1.2, 0, -4, 3.4, 0, 1, 0, 0));
+        assertEquals(BODY, PLAYER.rayHit(0, 0, 0, 3.6, 1.2, 0, -4, 1.7, 0, 1, 0, 0));
+    }
+
+    @Test
+    void pointInsidePartIsFound() {
+        assertEquals(HEAD, PLAYER.partAt(0, 0, 0, 1.8, 0.6, 0, 0, 1.7, 0));
+        assertEquals(BODY, PLAYER.partAt(0, 0, 0, 1.8, 0.6, 0, 0.2, 1.0, 0));
+        assertEquals(LEGS, PLAYER.partAt(0, 0, 0, 1.8, 0.6, 0, 0, 0.2, 0));
+    }
+
+    @Test
+    void pointOutsideFallsBackToHeight() {
+        assertEquals(LEGS, PLAYER.partAt(0, 0, 0, 1.8, 0.6, 0, 3, 0.2, 3));
+        assertEquals(HEAD, PLAYER.partAt(0, 0, 0, 1.8, 0.6, 0, 3, 1.7, 3));
+    }
+
+    @Test
+    void heightLookup() {
+        assertEquals(HEAD, PLAYER.partAtHeight(0.9));
+        assertEquals(BODY, PLAYER.partAtHeight(0.5));
+        assertEquals(LEGS, PLAYER.partAtHeight(0.1));
+    }
+
+    @Test
+    void heightOnBoundaryGoesToFirstPart() {
+        assertEquals(HEAD, PLAYER.partAtHeight(0.72));
+        assertEquals(BODY, PLAYER.partAtHeight(0.31));
+    }
+
+    @Test
+    void heightOutsideGoesToClosestPart() {
+        assertEquals(HEAD, PLAYER.partAtHeight(1.5));
+        assertEquals(LEGS, PLAYER.partAtHeight(-0.2));
+    }
+
+    private static int samples(PartGeometry geometry, int part) {
+        return (geometry.latticeStart[part + 1] - geometry.latticeStart[part]) / 3;
+    }
+
+    // A column of equally sized slices
+    private static PartGeometry slices(int count) {
+        double[] bounds = new double[count * 6];
+        for (int i = 0; i < count; i++) {
+            bounds[i * 6] = -0.5;
+            bounds[i * 6 + 1] = i / (double) count;
+            bounds[i * 6 + 2] = -0.5;
+            bounds[i * 6 + 3] = 0.5;
+            bounds[i * 6 + 4] = (i + 1) / (double) count;
+            bounds[i * 6 + 5] = 0.5;
+        }
+        return new PartGeometry(bounds);
+    }
+
+    @Test
+    void playerSamplesLargerPartsMore() {
+        assertEquals(8, samples(PLAYER, HEAD));
+        assertEquals(12, samples(PLAYER, BODY));
+        assertEquals(8, samples(PLAYER, LEGS));
+    }
+
+    @Test
+    void manyPartsStayWithinSampleBudget() {
+        for (int count = 1; count <= PartGeometry.MAX_LATTICE_SAMPLES; count++) {
+            PartGeometry geometry = slices(count);
+            assertTrue(geometry.lattice.length / 3 <= PartGeometry.MAX_LATTICE_SAMPLES, count + " parts");
+            for (int part = 0; part < count; part++) {
+                assertTrue(samples(geometry, part) >= 1, count + " parts");
+            }
+        }
+    }
+
+    @Test
+    void morePartsThanSamplesIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> slices(PartGeometry.MAX_LATTICE_SAMPLES + 1));
+    }
+}
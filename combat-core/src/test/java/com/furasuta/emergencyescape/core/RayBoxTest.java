@@ -0,0 +1,49 @@
+package com.furasuta.emergencyescape.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RayBoxTest {
+
+    @Test
+    void entersFacingBox() {
+        assertEquals(2.0, RayBox.entry(-2, 0.5, 0.5, 1, 0, 0, 0, 0, 0, 1, 1, 1), 1e-9);
+    }
+
+    @Test
+    void entryScalesWithDirectionLength() {
+        assertEquals(1.0, RayBox.entry(-2, 0.5, 0.5, 2, 0, 0, 0, 0, 0, 1, 1, 1), 1e-9);
+    }
+
+    @Test
+    void entersDiagonally() {
+        assertEquals(1.0, RayBox.entry(-1, -1, 0.5, 1, 1, 0, 0, 0, 0, 1, 1, 1), 1e-9);
+    }
+
+    @Test
+    void missesBoxBesideRay() {
+        assertEquals(Double.MAX_VALUE, RayBox.entry(-2, 1.5, 0.5, 1, 0, 0, 0, 0, 0, 1, 1, 1));
+    }
+
+    @Test
+    void missesBoxBehindOrigin() {
+        assertEquals(Double.MAX_VALUE, RayBox.entry(-2, 0.5, 0.5, -1, 0, 0, 0, 0, 0, 1, 1, 1));
+    }
+
+    @Test
+    void missesParallelRayOutsideSlab() {
+        assertEquals(Double.MAX_VALUE, RayBox.entry(-2, 0.5, 2, 1, 0, 0, 0, 0, 0, 1, 1, 1));
+    }
+
+    @Test
+    void originInsideBoxIsNoHit() {
+        assertEquals(Double.MAX_VALUE, RayBox.entry(0.5, 0.5, 0.5, 1, 0, 0, 0, 0, 0, 1, 1, 1));
+    }
+
+    @Test
+    void missesBeyondMaxLength() {
+        assertEquals(Double.MAX_VALUE, RayBox.entry(-20, 0.5, 0.5, 1, 0, 0, 0, 0, 0, 1, 1, 1));
+        assertEquals(RayBox.MAX_LENGTH, RayBox.entry(-RayBox.MAX_LENGTH, 0.5, 0.5, 1, 0, 0, 0, 0, 0, 1, 1, 1), 1e-9);
+    }
+}
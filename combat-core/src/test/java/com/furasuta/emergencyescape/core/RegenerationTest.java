@@ -0,0 +1,52 @@
+package com.furasuta.emergencyescape.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RegenerationTest {
+
+    @Test
+    void nothingBeforeDelayPasses() {
+        assertEquals(4f, Regeneration.valueAt(4, 20, 100, 40, 0.5f, 100));
+        assertEquals(4f, Regeneration.valueAt(4, 20, 100, 40, 0.5f, 140));
+    }
+
+    @Test
+    void regeneratesLinearlyAfterDelay() {
+        assertEquals(4.5f, Regeneration.valueAt(4, 20, 100, 40, 0.5f, 141));
+        assertEquals(9f, Regeneration.valueAt(4, 20, 100, 40, 0.5f, 150));
+    }
+
+    @Test
+    void cappedAtMax() {
+        assertEquals(20f, Regeneration.valueAt(4, 20, 100, 40, 0.5f, 1_000_000));
+    }
+
+    @Test
+    void noDelay() {
+        assertEquals(5f, Regeneration.valueAt(4, 20, 100, 0, 1, 101));
+    }
+
+    @Test
+    void zeroOrNegativeRateNeverRegenerates() {
+        assertEquals(4f, Regeneration.valueAt(4, 20, 100, 0, 0, 10_000));
+        assertEquals(4f, Regeneration.valueAt(4, 20, 100, 0, -1, 10_000));
+    }
+
+    @Test
+    void valueAtOrAboveMaxIsUnchanged() {
+        assertEquals(20f, Regeneration.valueAt(20, 20, 100, 0, 1, 10_000));
+        assertEquals(25f, Regeneration.valueAt(25, 20, 100, 0, 1, 10_000));
+    }
+
+    @Test
+    void tickBeforeBaseIsUnchanged() {
+        assertEquals(4f, Regeneration.valueAt(4, 20, 100, 0, 1, 50));
+    }
+
+    @Test
+    void longGapsDoNotOverflow() {
+        assertEquals(20f, Regeneration.valueAt(0, 20, 0, 0, 0.001f, Long.MAX_VALUE / 2));
+    }
+}
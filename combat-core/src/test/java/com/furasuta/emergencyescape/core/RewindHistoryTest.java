@@ -0,0 +1,67 @@
+package com.furasuta.emergencyescape.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RewindHistoryTest {
+
+    private static RewindHistory recordTicks(int from, int to) {
+        RewindHistory history = new RewindHistory();
+        for (int tick = from; tick <= to; tick++) {
+            history.record(tick, tick, 64, 0, 1.8, 0.6, tick, 0);
+        }
+        return history;
+    }
+
+    @Test
+    void emptyHistoryDoesNotRewind() {
+        assertFalse(new RewindHistory().rewind(10, new RewindHistory.Sample()));
+    }
+
+    @Test
+    void rewindsToRecordedTick() {
+        RewindHistory.Sample sample = new RewindHistory.Sample();
+        assertTrue(recordTicks(0, 20).rewind(15, sample));
+        assertEquals(15, sample.x);
+        assertEquals(15f, sample.yaw);
+        assertEquals(5, sample.rewoundTicks);
+    }
+
+    @Test
+    void futureTickGivesNewest() {
+        RewindHistory.Sample sample = new RewindHistory.Sample();
+        recordTicks(0, 20).rewind(100, sample);
+        assertEquals(20, sample.x);
+        assertEquals(0, sample.rewoundTicks);
+    }
+
+    @Test
+    void gapGivesNewestSampleBeforeTarget() {
+        RewindHistory history = new RewindHistory();
+        history.record(10, 10, 64, 0, 1.8, 0.6, 0, 0);
+        history.record(20, 20, 64, 0, 1.8, 0.6, 0, 0);
+        RewindHistory.Sample sample = new RewindHistory.Sample();
+        history.rewind(15, sample);
+        assertEquals(10, sample.x);
+    }
+
+    @Test
+    void tooFarBackGivesOldestKept() {
+        // The ring wraps, only the last CAPACITY ticks are kept
+        int newest = RewindHistory.CAPACITY * 2;
+        RewindHistory.Sample sample = new RewindHistory.Sample();
+        recordTicks(0, newest).rewind(0, sample);
+        assertEquals(newest - RewindHistory.CAPACITY + 1, sample.x);
+        assertEquals(RewindHistory.CAPACITY - 1, sample.rewoundTicks);
+    }
+
+    @Test
+    void clearEmptiesHistory() {
+        RewindHistory history = recordTicks(0, 5);
+        history.clear();
+        assertFalse(history.rewind(5, new RewindHistory.Sample()));
+    }
+}
@@ -1,13 +1,16 @@
 package com.furasuta.emergencyescape;
 
+import com.furasuta.emergencyescape.api.EmergencyEscapeApi;
 import com.furasuta.emergencyescape.capability.BodyPartHealthCapability;
 import com.furasuta.emergencyescape.capability.DamageConsumptionCapability;
 import com.furasuta.emergencyescape.capability.EmergencyEscapeCapability;
 import com.furasuta.emergencyescape.client.ClientSetup;
 import com.furasuta.emergencyescape.config.ModConfig;
+import com.furasuta.emergencyescape.event.EmergencyEscapeEventHandler;
 import com.furasuta.emergencyescape.init.ModItems;
 import com.furasuta.emergencyescape.init.ModSounds;
 import com.furasuta.emergencyescape.network.NetworkHandler;
+import com.furasuta.emergencyescape.util.PlayerStateIndex;
 import com.mojang.logging.LogUtils;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.common.MinecraftForge;
@@ -43,6 +46,11 @@ public class EmergencyEscapeMod {
         modEventBus.addListener(DamageConsumptionCapability::register);
         modEventBus.addListener(EmergencyEscapeCapability::register);
 
+        // Expose player state to addons
+        EmergencyEscapeApi.setQuery(PlayerStateIndex.INSTANCE);
+        // Take the event stream's writer before any addon can
+        EmergencyEscapeEventHandler.installEventWriter();
+
         // Register ourselves for server and other game events
         MinecraftForge.EVENT_BUS.register(this);
 
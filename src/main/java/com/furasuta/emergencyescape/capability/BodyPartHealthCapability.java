@@ -2,27 +2,49 @@ package com.furasuta.emergencyescape.capability;
 
 import com.furasuta.emergencyescape.EmergencyEscapeMod;
 import com.furasuta.emergencyescape.config.ModConfig;
+import com.furasuta.emergencyescape.core.Regeneration;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
 import net.minecraftforge.common.capabilities.*;
 import net.minecraftforge.common.util.INBTSerializable;
 import net.minecraftforge.common.util.LazyOptional;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.function.LongSupplier;
 
-public class BodyPartHealthCapability implements INBTSerializable<CompoundTag> {
+public class BodyPartHealthCapability extends CachedNBTSerializable {
     public static final ResourceLocation ID = new ResourceLocation(EmergencyEscapeMod.MODID, "body_part_health");
     public static Capability<BodyPartHealthCapability> CAPABILITY = CapabilityManager.get(new CapabilityToken<>() {});
 
+    // Health at lastDamageTick, read through the getters which add regeneration since then
     private float headHealth;
     private float bodyHealth;
     private int maxHeadHealth;
     private int maxBodyHealth;
     private boolean isActive = false;
 
+    // Number of hits processed server-side, not saved. Lets the client tell
+    // whether a sync already includes a hit it predicted locally.
+    private int hitSequence = 0;
+
+    // Regeneration in closed form: nothing ticks, health is computed from these when read
+    private final LongSupplier clock;
+    private long lastDamageTick = 0;
+    private float regenPerTick = 0;
+    private int regenDelayTicks = 0;
+
     public BodyPartHealthCapability() {
+        this(() -> 0L);
+    }
+
+    /**
+     * @param clock Game time source used for regeneration
+     */
+    public BodyPartHealthCapability(LongSupplier clock) {
+        this.clock = clock;
         this.maxHeadHealth = ModConfig.HEAD_MAX_HEALTH.get();
         this.maxBodyHealth = ModConfig.BODY_MAX_HEALTH.get();
         this.headHealth = maxHeadHealth;
@@ -34,19 +56,23 @@ public class BodyPartHealthCapability implements INBTSerializable<CompoundTag> {
     }
 
     public float getHeadHealth() {
-        return headHealth;
+        return regenerated(headHealth, maxHeadHealth);
     }
 
     public void setHeadHealth(float health) {
+        settle();
         this.headHealth = Math.max(0, Math.min(health, maxHeadHealth));
+        markDirty();
     }
 
     public float getBodyHealth() {
-        return bodyHealth;
+        return regenerated(bodyHealth, maxBodyHealth);
     }
 
     public void setBodyHealth(float health) {
+        settle();
         this.bodyHealth = Math.max(0, Math.min(health, maxBodyHealth));
+        markDirty();
     }
 
     public int getMaxHeadHealth() {
@@ -58,19 +84,57 @@ public class BodyPartHealthCapability implements INBTSerializable<CompoundTag> {
     }
 
     public void damageHead(float amount) {
+        settle();
         this.headHealth = Math.max(0, this.headHealth - amount);
+        restartRegen();
     }
 
     public void damageBody(float amount) {
+        settle();
         this.bodyHealth = Math.max(0, this.bodyHealth - amount);
+        restartRegen();
+    }
+
+    private float regenerated(float health, int max) {
+        return Regeneration.valueAt(health, max, lastDamageTick, regenDelayTicks, regenPerTick, clock.getAsLong());
+    }
+
+    // Folds regeneration so far into the stored values, keeping the current regeneration phase
+    private void settle() {
+        long now = clock.getAsLong();
+        this.headHealth = getHeadHealth();
+        this.bodyHealth = getBodyHealth();
+        if (now - lastDamageTick > regenDelayTicks) {
+            lastDamageTick = now - regenDelayTicks;
+        }
+    }
+
+    // Damage restarts the out-of-combat delay, with the rate configured at that moment
+    private void restartRegen() {
+        this.lastDamageTick = clock.getAsLong();
+        this.regenPerTick = (float) (ModConfig.REGEN_RATE.get() / 20.0);
+        this.regenDelayTicks = ModConfig.REGEN_DELAY.get() * 20;
+        markDirty();
+    }
+
+    private void stopRegen() {
+        this.regenPerTick = 0;
+    }
+
+    public int getHitSequence() {
+        return hitSequence;
+    }
+
+    public void recordHit() {
+        hitSequence++;
     }
 
     public float getHeadHealthPercent() {
-        return maxHeadHealth > 0 ? (headHealth / maxHeadHealth) * 100f : 0;
+        return maxHeadHealth > 0 ? (getHeadHealth() / maxHeadHealth) * 100f : 0;
     }
 
     public float getBodyHealthPercent() {
-        return maxBodyHealth > 0 ? (bodyHealth / maxBodyHealth) * 100f : 0;
+        return maxBodyHealth > 0 ? (getBodyHealth() / maxBodyHealth) * 100f : 0;
     }
 
     public boolean isActive() {
@@ -85,7 +149,23 @@ public class BodyPartHealthCapability implements INBTSerializable<CompoundTag> {
             this.maxBodyHealth = ModConfig.BODY_MAX_HEALTH.get();
             this.headHealth = maxHeadHealth;
             this.bodyHealth = maxBodyHealth;
+            stopRegen();
         }
+        markDirty();
+    }
+
+    /**
+     * Overwrites the whole state with server values. Unlike setActive, never resets health locally.
+     * The synced values already include regeneration, so none is applied on top.
+     */
+    public void applySync(float headHealth, float bodyHealth, int maxHeadHealth, int maxBodyHealth, boolean active) {
+        this.maxHeadHealth = maxHeadHealth;
+        this.maxBodyHealth = maxBodyHealth;
+        this.headHealth = headHealth;
+        this.bodyHealth = bodyHealth;
+        this.isActive = active;
+        stopRegen();
+        markDirty();
     }
 
     public void reset() {
@@ -93,31 +173,45 @@ public class BodyPartHealthCapability implements INBTSerializable<CompoundTag> {
         this.maxBodyHealth = ModConfig.BODY_MAX_HEALTH.get();
         this.headHealth = maxHeadHealth;
         this.bodyHealth = maxBodyHealth;
+        stopRegen();
+        markDirty();
     }
 
     @Override
-    public CompoundTag serializeNBT() {
+    protected CompoundTag writeNBT() {
         CompoundTag tag = new CompoundTag();
         tag.putFloat("headHealth", headHealth);
         tag.putFloat("bodyHealth", bodyHealth);
         tag.putInt("maxHeadHealth", maxHeadHealth);
         tag.putInt("maxBodyHealth", maxBodyHealth);
         tag.putBoolean("isActive", isActive);
+        // Regeneration parameters rather than its result, so the saved tag stays valid over time
+        tag.putLong("lastDamageTick", lastDamageTick);
+        tag.putFloat("regenPerTick", regenPerTick);
+        tag.putInt("regenDelayTicks", regenDelayTicks);
         return tag;
     }
 
     @Override
-    public void deserializeNBT(CompoundTag tag) {
+    protected void readNBT(CompoundTag tag) {
         this.headHealth = tag.getFloat("headHealth");
         this.bodyHealth = tag.getFloat("bodyHealth");
         this.maxHeadHealth = tag.getInt("maxHeadHealth");
         this.maxBodyHealth = tag.getInt("maxBodyHealth");
         this.isActive = tag.getBoolean("isActive");
+        this.lastDamageTick = tag.getLong("lastDamageTick");
+        this.regenPerTick = tag.getFloat("regenPerTick");
+        this.regenDelayTicks = tag.getInt("regenDelayTicks");
     }
 
     public static class Provider implements ICapabilityProvider, INBTSerializable<CompoundTag> {
-        private final BodyPartHealthCapability capability = new BodyPartHealthCapability();
-        private final LazyOptional<BodyPartHealthCapability> optional = LazyOptional.of(() -> capability);
+        private final BodyPartHealthCapability capability;
+        private final LazyOptional<BodyPartHealthCapability> optional;
+
+        public Provider(Entity entity) {
+            this.capability = new BodyPartHealthCapability(() -> entity.level().getGameTime());
+            this.optional = LazyOptional.of(() -> capability);
+        }
 
         @Nonnull
         @Override
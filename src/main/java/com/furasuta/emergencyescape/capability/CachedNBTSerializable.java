@@ -0,0 +1,46 @@
+package com.furasuta.emergencyescape.capability;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraftforge.common.util.INBTSerializable;
+
+/**
+ * Base for capabilities that are written on every player save.
+ * Subclasses call {@link #markDirty()} whenever their state changes; as long as nothing changed
+ * since the last save, {@link #serializeNBT()} hands back the previously built tag instead of
+ * rebuilding it.
+ *
+ * The returned tag is shared between saves, so callers must treat it as read-only.
+ */
+public abstract class CachedNBTSerializable implements INBTSerializable<CompoundTag> {
+
+    private int version = 0;
+    private int serializedVersion = -1;
+    private CompoundTag serialized;
+
+    protected void markDirty() {
+        version++;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    protected abstract CompoundTag writeNBT();
+
+    protected abstract void readNBT(CompoundTag tag);
+
+    @Override
+    public final CompoundTag serializeNBT() {
+        if (serialized == null || serializedVersion != version) {
+            serialized = writeNBT();
+            serializedVersion = version;
+        }
+        return serialized;
+    }
+
+    @Override
+    public final void deserializeNBT(CompoundTag tag) {
+        readNBT(tag);
+        markDirty();
+    }
+}
@@ -12,8 +12,8 @@ public class CapabilityHandler {
 
     @SubscribeEvent
     public static void attachCapabilities(AttachCapabilitiesEvent<Entity> event) {
-        if (event.getObject() instanceof Player) {
-            event.addCapability(BodyPartHealthCapability.ID, new BodyPartHealthCapability.Provider());
+        if (event.getObject() instanceof Player player) {
+            event.addCapability(BodyPartHealthCapability.ID, new BodyPartHealthCapability.Provider(player));
             event.addCapability(DamageConsumptionCapability.ID, new DamageConsumptionCapability.Provider());
             event.addCapability(EmergencyEscapeCapability.ID, new EmergencyEscapeCapability.Provider());
         }
@@ -1,6 +1,11 @@
 package com.furasuta.emergencyescape.capability;
 
 import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.api.CombatEventType;
+import com.furasuta.emergencyescape.core.ConsumptionTimer;
+import com.furasuta.emergencyescape.core.ExperienceMath;
+import com.furasuta.emergencyescape.event.EmergencyEscapeEventHandler;
+import com.furasuta.emergencyescape.util.PlayerStats;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -17,7 +22,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-public class DamageConsumptionCapability implements INBTSerializable<CompoundTag> {
+public class DamageConsumptionCapability extends CachedNBTSerializable {
     public static final ResourceLocation ID = new ResourceLocation(EmergencyEscapeMod.MODID, "damage_consumption");
     public static Capability<DamageConsumptionCapability> CAPABILITY = CapabilityManager.get(new CapabilityToken<>() {});
 
@@ -30,6 +35,7 @@ public class DamageConsumptionCapability implements INBTSerializable<CompoundTag
 
     public void addConsumption(boolean isLargeDamage, boolean isInstant, int durationTicks, int intervalTicks, int amount) {
         activeTimers.add(new ConsumptionTimer(isLargeDamage, isInstant, durationTicks, intervalTicks, amount));
+        markDirty();
     }
 
     public List<ConsumptionTimer> getActiveTimers() {
@@ -41,6 +47,11 @@ public class DamageConsumptionCapability implements INBTSerializable<CompoundTag
             return;
         }
 
+        if (activeTimers.isEmpty()) {
+            return;
+        }
+        markDirty();
+
         Iterator<ConsumptionTimer> iterator = activeTimers.iterator();
         while (iterator.hasNext()) {
             ConsumptionTimer timer = iterator.next();
@@ -51,6 +62,8 @@ public class DamageConsumptionCapability implements INBTSerializable<CompoundTag
                 if (currentExp > 0) {
                     int newExp = Math.max(0, currentExp - timer.getAmount());
                     setPlayerTotalExperience(player, newExp);
+                    EmergencyEscapeEventHandler.publish(CombatEventType.EXPERIENCE_DRAIN, player).amount(currentExp - newExp).commit();
+                    PlayerStats.add(player, PlayerStats.Stat.EXPERIENCE_DRAINED, currentExp - newExp);
                 }
                 timer.resetInterval();
             }
@@ -62,7 +75,10 @@ public class DamageConsumptionCapability implements INBTSerializable<CompoundTag
     }
 
     public void clearAllTimers() {
-        activeTimers.clear();
+        if (!activeTimers.isEmpty()) {
+            activeTimers.clear();
+            markDirty();
+        }
     }
 
     public boolean isActive() {
@@ -74,17 +90,11 @@ public class DamageConsumptionCapability implements INBTSerializable<CompoundTag
         if (!active) {
             clearAllTimers();
         }
+        markDirty();
     }
 
     public static int getPlayerTotalExperience(Player player) {
-        int level = player.experienceLevel;
-        int exp = (int) (player.experienceProgress * player.getXpNeededForNextLevel());
-
-        int totalExp = 0;
-        for (int i = 0; i < level; i++) {
-            totalExp += getExperienceForLevel(i);
-        }
-        return totalExp + exp;
+        return ExperienceMath.total(player.experienceLevel, player.experienceProgress);
     }
 
     public static void setPlayerTotalExperience(Player player, int exp) {
@@ -97,24 +107,14 @@ public class DamageConsumptionCapability implements INBTSerializable<CompoundTag
         }
     }
 
-    private static int getExperienceForLevel(int level) {
-        if (level >= 30) {
-            return 112 + (level - 30) * 9;
-        } else if (level >= 15) {
-            return 37 + (level - 15) * 5;
-        } else {
-            return 7 + level * 2;
-        }
-    }
-
     @Override
-    public CompoundTag serializeNBT() {
+    protected CompoundTag writeNBT() {
         CompoundTag tag = new CompoundTag();
         tag.putBoolean("isActive", isActive);
 
         ListTag timersList = new ListTag();
         for (ConsumptionTimer timer : activeTimers) {
-            timersList.add(timer.serializeNBT());
+            timersList.add(writeTimer(timer));
         }
         tag.put("timers", timersList);
 
@@ -122,87 +122,31 @@ public class DamageConsumptionCapability implements INBTSerializable<CompoundTag
     }
 
     @Override
-    public void deserializeNBT(CompoundTag tag) {
+    protected void readNBT(CompoundTag tag) {
         this.isActive = tag.getBoolean("isActive");
         this.activeTimers.clear();
 
         ListTag timersList = tag.getList("timers", Tag.TAG_COMPOUND);
         for (int i = 0; i < timersList.size(); i++) {
-            ConsumptionTimer timer = new ConsumptionTimer();
-            timer.deserializeNBT(timersList.getCompound(i));
-            activeTimers.add(timer);
+            activeTimers.add(readTimer(timersList.getCompound(i)));
         }
     }
 
-    public static class ConsumptionTimer implements INBTSerializable<CompoundTag> {
-        private boolean isLargeDamage;
-        private boolean isInstant;
-        private int remainingDuration;
-        private int intervalTicks;
-        private int currentIntervalTicks;
-        private int amount;
-
-        public ConsumptionTimer() {}
-
-        public ConsumptionTimer(boolean isLargeDamage, boolean isInstant, int durationTicks, int intervalTicks, int amount) {
-            this.isLargeDamage = isLargeDamage;
-            this.isInstant = isInstant;
-            this.remainingDuration = durationTicks;
-            this.intervalTicks = intervalTicks;
-            this.currentIntervalTicks = 0;
-            this.amount = amount;
-        }
-
-        public void tick() {
-            remainingDuration--;
-            currentIntervalTicks++;
-        }
-
-        public boolean shouldConsume() {
-            return currentIntervalTicks >= intervalTicks;
-        }
-
-        public void resetInterval() {
-            currentIntervalTicks = 0;
-        }
-
-        public boolean isExpired() {
-            return remainingDuration <= 0;
-        }
-
-        public int getAmount() {
-            return amount;
-        }
-
-        public boolean isLargeDamage() {
-            return isLargeDamage;
-        }
-
-        public boolean isInstant() {
-            return isInstant;
-        }
-
-        @Override
-        public CompoundTag serializeNBT() {
-            CompoundTag tag = new CompoundTag();
-            tag.putBoolean("isLargeDamage", isLargeDamage);
-            tag.putBoolean("isInstant", isInstant);
-            tag.putInt("remainingDuration", remainingDuration);
-            tag.putInt("intervalTicks", intervalTicks);
-            tag.putInt("currentIntervalTicks", currentIntervalTicks);
-            tag.putInt("amount", amount);
-            return tag;
-        }
+    private static CompoundTag writeTimer(ConsumptionTimer timer) {
+        CompoundTag tag = new CompoundTag();
+        tag.putBoolean("isLargeDamage", timer.isLargeDamage());
+        tag.putBoolean("isInstant", timer.isInstant());
+        tag.putInt("remainingDuration", timer.getRemainingDuration());
+        tag.putInt("intervalTicks", timer.getIntervalTicks());
+        tag.putInt("currentIntervalTicks", timer.getCurrentIntervalTicks());
+        tag.putInt("amount", timer.getAmount());
+        return tag;
+    }
 
-        @Override
-        public void deserializeNBT(CompoundTag tag) {
-            this.isLargeDamage = tag.getBoolean("isLargeDamage");
-            this.isInstant = tag.getBoolean("isInstant");
-            this.remainingDuration = tag.getInt("remainingDuration");
-            this.intervalTicks = tag.getInt("intervalTicks");
-            this.currentIntervalTicks = tag.getInt("currentIntervalTicks");
-            this.amount = tag.getInt("amount");
-        }
+    private static ConsumptionTimer readTimer(CompoundTag tag) {
+        return new ConsumptionTimer(tag.getBoolean("isLargeDamage"), tag.getBoolean("isInstant"),
+                tag.getInt("remainingDuration"), tag.getInt("intervalTicks"),
+                tag.getInt("currentIntervalTicks"), tag.getInt("amount"));
     }
 
     public static class Provider implements ICapabilityProvider, INBTSerializable<CompoundTag> {
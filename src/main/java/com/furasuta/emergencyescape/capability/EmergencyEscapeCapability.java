@@ -1,6 +1,7 @@
 package com.furasuta.emergencyescape.capability;
 
 import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.core.EscapeState;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
@@ -12,13 +13,11 @@ import net.minecraftforge.common.util.LazyOptional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-public class EmergencyEscapeCapability implements INBTSerializable<CompoundTag> {
+public class EmergencyEscapeCapability extends CachedNBTSerializable {
     public static final ResourceLocation ID = new ResourceLocation(EmergencyEscapeMod.MODID, "emergency_escape");
     public static Capability<EmergencyEscapeCapability> CAPABILITY = CapabilityManager.get(new CapabilityToken<>() {});
 
-    private boolean isEscaping = false;
-    private int escapeTicksRemaining = 0;
-    private double escapeX, escapeY, escapeZ;
+    private final EscapeState state = new EscapeState();
     private boolean hasItem = false;
 
     public static void register(RegisterCapabilitiesEvent event) {
@@ -26,46 +25,43 @@ public class EmergencyEscapeCapability implements INBTSerializable<CompoundTag>
     }
 
     public boolean isEscaping() {
-        return isEscaping;
+        return state.isEscaping();
     }
 
     public void startEscape(Player player, int durationTicks) {
-        this.isEscaping = true;
-        this.escapeTicksRemaining = durationTicks;
-        this.escapeX = player.getX();
-        this.escapeY = player.getY();
-        this.escapeZ = player.getZ();
+        state.start(player.getX(), player.getY(), player.getZ(), durationTicks);
+        markDirty();
     }
 
     public void stopEscape() {
-        this.isEscaping = false;
-        this.escapeTicksRemaining = 0;
+        state.stop();
+        markDirty();
     }
 
     public int getEscapeTicksRemaining() {
-        return escapeTicksRemaining;
+        return state.getTicksRemaining();
     }
 
     public void tick() {
-        if (isEscaping && escapeTicksRemaining > 0) {
-            escapeTicksRemaining--;
+        if (state.tick()) {
+            markDirty();
         }
     }
 
     public boolean shouldDie() {
-        return isEscaping && escapeTicksRemaining <= 0;
+        return state.shouldDie();
     }
 
     public double getEscapeX() {
-        return escapeX;
+        return state.getX();
     }
 
     public double getEscapeY() {
-        return escapeY;
+        return state.getY();
     }
 
     public double getEscapeZ() {
-        return escapeZ;
+        return state.getZ();
     }
 
     public boolean hasItem() {
@@ -73,28 +69,29 @@ public class EmergencyEscapeCapability implements INBTSerializable<CompoundTag>
     }
 
     public void setHasItem(boolean hasItem) {
-        this.hasItem = hasItem;
+        // Called every tick with the same value, only a real change invalidates the snapshot
+        if (this.hasItem != hasItem) {
+            this.hasItem = hasItem;
+            markDirty();
+        }
     }
 
     @Override
-    public CompoundTag serializeNBT() {
+    protected CompoundTag writeNBT() {
         CompoundTag tag = new CompoundTag();
-        tag.putBoolean("isEscaping", isEscaping);
-        tag.putInt("escapeTicksRemaining", escapeTicksRemaining);
-        tag.putDouble("escapeX", escapeX);
-        tag.putDouble("escapeY", escapeY);
-        tag.putDouble("escapeZ", escapeZ);
+        tag.putBoolean("isEscaping", state.isEscaping());
+        tag.putInt("escapeTicksRemaining", state.getTicksRemaining());
+        tag.putDouble("escapeX", state.getX());
+        tag.putDouble("escapeY", state.getY());
+        tag.putDouble("escapeZ", state.getZ());
         tag.putBoolean("hasItem", hasItem);
         return tag;
     }
 
     @Override
-    public void deserializeNBT(CompoundTag tag) {
-        this.isEscaping = tag.getBoolean("isEscaping");
-        this.escapeTicksRemaining = tag.getInt("escapeTicksRemaining");
-        this.escapeX = tag.getDouble("escapeX");
-        this.escapeY = tag.getDouble("escapeY");
-        this.escapeZ = tag.getDouble("escapeZ");
+    protected void readNBT(CompoundTag tag) {
+        state.restore(tag.getBoolean("isEscaping"), tag.getInt("escapeTicksRemaining"),
+                tag.getDouble("escapeX"), tag.getDouble("escapeY"), tag.getDouble("escapeZ"));
         this.hasItem = tag.getBoolean("hasItem");
     }
 
@@ -0,0 +1,164 @@
+package com.furasuta.emergencyescape.client;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.capability.BodyPartHealthCapability;
+import com.furasuta.emergencyescape.util.BodyPartHitbox;
+import com.furasuta.emergencyescape.util.DamageRouting;
+import com.furasuta.emergencyescape.util.HitClassifier;
+import com.furasuta.emergencyescape.util.HitPositionTracker;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Predicts head/body health loss for the HUD from hurt events the client sees locally,
+ * using the same classification as the server. The prediction is dropped as soon as a sync
+ * arrives that already includes a newer server-side hit, or after a timeout.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID, value = Dist.CLIENT)
+public class ClientDamagePredictor {
+
+    // Ticks a classified damage event waits for the matching health decrease
+    private static final int PENDING_TICKS = 10;
+    // Ticks after which an unconfirmed prediction is discarded
+    private static final int PREDICTION_TIMEOUT_TICKS = 40;
+
+    private static BodyPartHitbox.BodyPart pendingPart = null;
+    private static float[] pendingShares = null;
+    private static float pendingMultiplier = 1.0f;
+    private static int pendingAge = 0;
+    private static int pendingSequence = 0;
+    private static float lastHealth = -1;
+
+    private static float predictedHeadLoss = 0;
+    private static float predictedBodyLoss = 0;
+    private static boolean predicting = false;
+    private static int predictionAge = 0;
+    private static int baselineSequence = 0;
+    private static int lastServerSequence = 0;
+
+    public static void onDamageEvent(LivingEntity entity, DamageSource source) {
+        Player player = Minecraft.getInstance().player;
+        if (entity != player) return;
+
+        // Routed damage types skip hit detection, same as on the server
+        int routeIndex = DamageRouting.indexOf(source);
+        DamageRouting.Route route = DamageRouting.route(routeIndex);
+        pendingMultiplier = DamageRouting.multiplier(routeIndex);
+        pendingShares = null;
+        switch (route) {
+            case BYPASS -> {
+                // No part takes damage, nothing to predict
+                pendingPart = null;
+                return;
+            }
+            case HEAD -> pendingPart = BodyPartHitbox.BodyPart.HEAD;
+            case BODY -> pendingPart = BodyPartHitbox.BodyPart.BODY;
+            case LEGS -> pendingPart = BodyPartHitbox.BodyPart.LEGS;
+            default -> {
+                HitPositionTracker.HitInfo hitInfo = HitClassifier.classify(player, source, false);
+                // Damage without a position lands on the body, same as the server default
+                pendingPart = hitInfo != null ? hitInfo.bodyPart : BodyPartHitbox.BodyPart.BODY;
+                pendingShares = hitInfo != null ? hitInfo.partShares : null;
+            }
+        }
+        pendingAge = 0;
+        pendingSequence = lastServerSequence;
+    }
+
+    /**
+     * Called with the hit sequence of every applied sync.
+     */
+    public static void reconcile(int serverHitSequence) {
+        lastServerSequence = serverHitSequence;
+        if (predicting && serverHitSequence != baselineSequence) {
+            clearPrediction();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+
+        Player player = Minecraft.getInstance().player;
+        if (player == null) {
+            lastHealth = -1;
+            return;
+        }
+
+        float health = player.getHealth();
+        if (pendingPart != null && lastHealth >= 0 && health < lastHealth) {
+            // A sync with a newer hit already arrived since the damage event, nothing left to predict
+            if (lastServerSequence == pendingSequence) {
+                predict(player, pendingPart, pendingShares, (lastHealth - health) * pendingMultiplier);
+            }
+            pendingPart = null;
+        }
+        lastHealth = health;
+
+        if (pendingPart != null && ++pendingAge > PENDING_TICKS) {
+            pendingPart = null;
+        }
+        if (predicting && ++predictionAge > PREDICTION_TIMEOUT_TICKS) {
+            clearPrediction();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        pendingPart = null;
+        lastHealth = -1;
+        lastServerSequence = 0;
+        clearPrediction();
+    }
+
+    private static void predict(Player player, BodyPartHitbox.BodyPart part, float[] shares, float amount) {
+        player.getCapability(BodyPartHealthCapability.CAPABILITY).ifPresent(cap -> {
+            if (!cap.isActive()) return;
+
+            if (!predicting) {
+                predicting = true;
+                baselineSequence = pendingSequence;
+            }
+            predictionAge = 0;
+
+            // Split hits (explosions) are spread the same way the server spreads them
+            if (shares != null) {
+                predictedHeadLoss += amount * shares[BodyPartHitbox.BodyPart.HEAD.ordinal()];
+                predictedBodyLoss += amount * shares[BodyPartHitbox.BodyPart.BODY.ordinal()];
+                return;
+            }
+
+            switch (part) {
+                case HEAD -> predictedHeadLoss += amount;
+                case BODY -> predictedBodyLoss += amount;
+                default -> {
+                    // Legs take no body part damage
+                }
+            }
+        });
+    }
+
+    private static void clearPrediction() {
+        predicting = false;
+        predictedHeadLoss = 0;
+        predictedBodyLoss = 0;
+        predictionAge = 0;
+    }
+
+    public static float getHeadHealthPercent(BodyPartHealthCapability cap) {
+        float health = Math.max(0, cap.getHeadHealth() - predictedHeadLoss);
+        return cap.getMaxHeadHealth() > 0 ? (health / cap.getMaxHeadHealth()) * 100f : 0;
+    }
+
+    public static float getBodyHealthPercent(BodyPartHealthCapability cap) {
+        float health = Math.max(0, cap.getBodyHealth() - predictedBodyLoss);
+        return cap.getMaxBodyHealth() > 0 ? (health / cap.getMaxBodyHealth()) * 100f : 0;
+    }
+}
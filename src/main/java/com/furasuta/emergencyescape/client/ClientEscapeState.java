@@ -0,0 +1,84 @@
+package com.furasuta.emergencyescape.client;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.player.Input;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.client.event.MovementInputUpdateEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Client-side half of the escape freeze. Set once by EscapeStatePacket,
+ * then suppresses movement input and velocity locally every tick.
+ * The countdown is extrapolated from the level game time, which the server
+ * keeps in step, so it needs no further messages.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID, value = Dist.CLIENT)
+public class ClientEscapeState {
+
+    private static boolean frozen = false;
+    private static double frozenX, frozenY, frozenZ;
+    private static long startTick;
+    private static int durationTicks;
+
+    public static void setFrozen(boolean frozen, double x, double y, double z, long startTick, int durationTicks) {
+        ClientEscapeState.frozen = frozen;
+        frozenX = x;
+        frozenY = y;
+        frozenZ = z;
+        ClientEscapeState.startTick = startTick;
+        ClientEscapeState.durationTicks = durationTicks;
+    }
+
+    public static boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Seconds left before the escape completes, extrapolated from the server start tick.
+     */
+    public static float getRemainingSeconds(float partialTick) {
+        Level level = Minecraft.getInstance().level;
+        if (!frozen || level == null) return 0;
+
+        float elapsed = (level.getGameTime() - startTick) + partialTick;
+        return Math.max(0, Math.min(durationTicks, durationTicks - elapsed)) / 20f;
+    }
+
+    @SubscribeEvent
+    public static void onMovementInput(MovementInputUpdateEvent event) {
+        if (!frozen) return;
+
+        Input input = event.getInput();
+        input.forwardImpulse = 0;
+        input.leftImpulse = 0;
+        input.up = false;
+        input.down = false;
+        input.left = false;
+        input.right = false;
+        input.jumping = false;
+        input.shiftKeyDown = false;
+    }
+
+    @SubscribeEvent
+    public static void onPlayerTick(TickEvent.PlayerTickEvent event) {
+        if (!frozen || event.phase != TickEvent.Phase.START || event.side != LogicalSide.CLIENT) return;
+        if (event.player != Minecraft.getInstance().player) return;
+
+        event.player.setDeltaMovement(Vec3.ZERO);
+        if (event.player.distanceToSqr(frozenX, frozenY, frozenZ) > 0.01) {
+            event.player.setPos(frozenX, frozenY, frozenZ);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        frozen = false;
+    }
+}
@@ -15,22 +15,26 @@ import java.util.Random;
 public class ClientPacketHandler {
 
     public static void handleSyncCapabilities(float headHealth, float bodyHealth, int maxHeadHealth, int maxBodyHealth,
-                                               boolean isActive, boolean isEscaping, int escapeTicksRemaining, boolean hasItem) {
+                                               boolean isActive, int hitSequence, boolean isEscaping, boolean hasItem) {
         Minecraft mc = Minecraft.getInstance();
         Player player = mc.player;
         if (player != null) {
             player.getCapability(BodyPartHealthCapability.CAPABILITY).ifPresent(cap -> {
-                cap.setHeadHealth(headHealth);
-                cap.setBodyHealth(bodyHealth);
-                cap.setActive(isActive);
+                cap.applySync(headHealth, bodyHealth, maxHeadHealth, maxBodyHealth, isActive);
             });
 
+            ClientDamagePredictor.reconcile(hitSequence);
+
             player.getCapability(EmergencyEscapeCapability.CAPABILITY).ifPresent(cap -> {
                 cap.setHasItem(hasItem);
             });
         }
     }
 
+    public static void handleEscapeState(boolean frozen, double x, double y, double z, long startTick, int durationTicks) {
+        ClientEscapeState.setFrozen(frozen, x, y, z, startTick, durationTicks);
+    }
+
     public static void handleSpawnParticles(double x, double y, double z) {
         Minecraft mc = Minecraft.getInstance();
         Level level = mc.level;
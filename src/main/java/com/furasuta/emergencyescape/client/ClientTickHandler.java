@@ -0,0 +1,33 @@
+package com.furasuta.emergencyescape.client;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.network.SyncCapabilitiesPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Drains the latest-wins packet mailboxes once per client tick.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID, value = Dist.CLIENT)
+public class ClientTickHandler {
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.START) return;
+        if (Minecraft.getInstance().player == null) return;
+
+        SyncCapabilitiesPacket sync = SyncCapabilitiesPacket.MAILBOX.take();
+        if (sync != null) {
+            sync.apply();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        SyncCapabilitiesPacket.MAILBOX.clear();
+    }
+}
@@ -50,12 +50,17 @@ public class HealthBarRenderer {
             // Draw head health indicator (horizontal bar, LEFT side)
             int headX = centerX - 91; // Align with left side of health bar
             int headY = healthBarY - 22;
-            drawHeadHealthIndicator(guiGraphics, headX, headY, cap.getHeadHealthPercent());
+            drawHeadHealthIndicator(guiGraphics, headX, headY, ClientDamagePredictor.getHeadHealthPercent(cap));
 
             // Draw body health indicator (hexagon, RIGHT side)
             int bodyX = centerX + 50;
             int bodyY = healthBarY - 30;
-            drawBodyHealthIndicator(guiGraphics, bodyX, bodyY, cap.getBodyHealthPercent());
+            drawBodyHealthIndicator(guiGraphics, bodyX, bodyY, ClientDamagePredictor.getBodyHealthPercent(cap));
+
+            // Draw escape countdown while escaping
+            if (ClientEscapeState.isFrozen()) {
+                drawEscapeCountdown(guiGraphics, centerX, healthBarY - 70, ClientEscapeState.getRemainingSeconds(event.getPartialTick()));
+            }
 
             // Draw voluntary escape progress bar if holding key
             float holdProgress = KeyInputHandler.getHoldProgress();
@@ -169,6 +174,13 @@ public class HealthBarRenderer {
         guiGraphics.fill(x + 5, y + 19, x + 15, y + 20, borderColor);
     }
 
+    private static void drawEscapeCountdown(GuiGraphics guiGraphics, int centerX, int y, float secondsRemaining) {
+        Minecraft mc = Minecraft.getInstance();
+        String text = String.format("緊急脱出まで %.1f秒", secondsRemaining);
+        int textWidth = mc.font.width(text);
+        guiGraphics.drawString(mc.font, text, centerX - textWidth / 2, y, 0xFF5555, true);
+    }
+
     private static void drawEscapeProgress(GuiGraphics guiGraphics, int centerX, int y, float progress) {
         int barWidth = 60;
         int barHeight = 5;
@@ -0,0 +1,127 @@
+package com.furasuta.emergencyescape.command;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.util.LoadShedController;
+import com.furasuta.emergencyescape.util.PlayerStats;
+import com.furasuta.emergencyescape.util.StateExport;
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
+import net.minecraft.commands.arguments.GameProfileArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class ModCommands {
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal(EmergencyEscapeMod.MODID)
+                .requires(source -> source.hasPermission(2))
+                .then(qosCommand())
+                .then(statsCommand())
+                .then(exportCommand()));
+    }
+
+    private static LiteralArgumentBuilder<CommandSourceStack> statsCommand() {
+        return Commands.literal("stats")
+                // Profiles rather than entities, so offline players can be looked up too
+                .then(Commands.argument("player", GameProfileArgument.gameProfile())
+                        .executes(ModCommands::showStats));
+    }
+
+    private static int showStats(CommandContext<CommandSourceStack> ctx) throws CommandSyntaxException {
+        int found = 0;
+        long[] stats = new long[PlayerStats.Stat.values().length];
+        for (GameProfile profile : GameProfileArgument.getGameProfiles(ctx, "player")) {
+            String name = profile.getName();
+            if (!PlayerStats.get(profile.getId(), stats)) {
+                ctx.getSource().sendSuccess(() -> Component.literal("No combat stats recorded for " + name), false);
+                continue;
+            }
+
+            String result = String.format("Combat stats for %s:"
+                            + "\n  Hits taken: head %d, body %d, legs %d, explosions %d"
+                            + "\n  Escapes: forced %d, voluntary %d, deaths while escaping %d"
+                            + "\n  Experience drained: %d",
+                    name,
+                    stats[PlayerStats.Stat.HEAD_HITS.ordinal()], stats[PlayerStats.Stat.BODY_HITS.ordinal()],
+                    stats[PlayerStats.Stat.LEGS_HITS.ordinal()], stats[PlayerStats.Stat.SPLIT_HITS.ordinal()],
+                    stats[PlayerStats.Stat.FORCED_ESCAPES.ordinal()], stats[PlayerStats.Stat.VOLUNTARY_ESCAPES.ordinal()],
+                    stats[PlayerStats.Stat.ESCAPE_DEATHS.ordinal()], stats[PlayerStats.Stat.EXPERIENCE_DRAINED.ordinal()]);
+            ctx.getSource().sendSuccess(() -> Component.literal(result), false);
+            found++;
+        }
+        return found;
+    }
+
+    private static LiteralArgumentBuilder<CommandSourceStack> exportCommand() {
+        return Commands.literal("export")
+                .executes(ctx -> runExport(ctx, StateExport.Format.JSON))
+                .then(Commands.literal("json")
+                        .executes(ctx -> runExport(ctx, StateExport.Format.JSON)))
+                .then(Commands.literal("csv")
+                        .executes(ctx -> runExport(ctx, StateExport.Format.CSV)));
+    }
+
+    private static int runExport(CommandContext<CommandSourceStack> ctx, StateExport.Format format) {
+        if (!StateExport.start(ctx.getSource().getServer(), format, ctx.getSource())) {
+            ctx.getSource().sendFailure(Component.literal("An export is already running"));
+            return 0;
+        }
+        return 1;
+    }
+
+    private static LiteralArgumentBuilder<CommandSourceStack> qosCommand() {
+        return Commands.literal("qos")
+                .executes(ModCommands::showQos)
+                .then(Commands.literal("auto")
+                        .executes(ctx -> {
+                            LoadShedController.resume();
+                            ctx.getSource().sendSuccess(() -> Component.literal("Load shedding level is automatic again"), true);
+                            return 1;
+                        }))
+                .then(Commands.literal("set")
+                        .then(Commands.argument("level", StringArgumentType.word())
+                                .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(
+                                        Arrays.stream(LoadShedController.Level.values())
+                                                .map(l -> l.name().toLowerCase(Locale.ROOT)), builder))
+                                .executes(ModCommands::setQos)));
+    }
+
+    private static int showQos(CommandContext<CommandSourceStack> ctx) {
+        LoadShedController.Level level = LoadShedController.getLevel();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Load shedding: %s (%s), average tick %.1f ms",
+                level, LoadShedController.isForced() ? "forced" : "auto", LoadShedController.getAverageMspt()));
+        for (LoadShedController.Level l : LoadShedController.Level.values()) {
+            sb.append(String.format("\n  %s: %d ticks", l, LoadShedController.getTicksAtLevel(l)));
+        }
+        ctx.getSource().sendSuccess(() -> Component.literal(sb.toString()), false);
+        return level.ordinal();
+    }
+
+    private static int setQos(CommandContext<CommandSourceStack> ctx) {
+        String name = StringArgumentType.getString(ctx, "level");
+        LoadShedController.Level level;
+        try {
+            level = LoadShedController.Level.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            ctx.getSource().sendFailure(Component.literal("Unknown load shedding level: " + name));
+            return 0;
+        }
+        LoadShedController.force(level);
+        ctx.getSource().sendSuccess(() -> Component.literal("Load shedding level forced to " + level), true);
+        return 1;
+    }
+}
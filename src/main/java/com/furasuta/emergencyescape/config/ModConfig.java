@@ -1,13 +1,21 @@
 package com.furasuta.emergencyescape.config;
 
+import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.common.ForgeConfigSpec;
 
+import java.util.List;
+
 public class ModConfig {
     public static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
     public static final ForgeConfigSpec SPEC;
 
     // Damage threshold
     public static final ForgeConfigSpec.IntValue LARGE_DAMAGE_THRESHOLD;
+    public static final ForgeConfigSpec.IntValue DOT_AGGREGATION_WINDOW;
+    public static final ForgeConfigSpec.IntValue LAG_COMPENSATION_MAX_MS;
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> DAMAGE_ROUTES;
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> SEVERITY_TIERS;
+    public static final ForgeConfigSpec.BooleanValue SEVERITY_INTERPOLATE;
 
     // Large damage - Instant consumption
     public static final ForgeConfigSpec.BooleanValue LARGE_DAMAGE_INSTANT_ENABLED;
@@ -35,12 +43,34 @@ public class ModConfig {
 
     // Emergency escape settings
     public static final ForgeConfigSpec.IntValue ESCAPE_DEATH_DELAY;
-    public static final ForgeConfigSpec.IntValue VOLUNTARY_ESCAPE_RADIUS;
+    public static final ForgeConfigSpec.IntValue COMBAT_TAG_DURATION;
     public static final ForgeConfigSpec.IntValue VOLUNTARY_ESCAPE_HOLD_TIME;
 
     // Body part health
     public static final ForgeConfigSpec.IntValue HEAD_MAX_HEALTH;
     public static final ForgeConfigSpec.IntValue BODY_MAX_HEALTH;
+    public static final ForgeConfigSpec.IntValue REGEN_DELAY;
+    public static final ForgeConfigSpec.DoubleValue REGEN_RATE;
+
+    // Mob body parts
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> MOB_BODY_PART_ENTITY_TYPES;
+    public static final ForgeConfigSpec.DoubleValue MOB_HEAD_HEALTH_RATIO;
+    public static final ForgeConfigSpec.DoubleValue MOB_BODY_HEALTH_RATIO;
+
+    // Load shedding
+    public static final ForgeConfigSpec.BooleanValue LOAD_SHEDDING_ENABLED;
+    public static final ForgeConfigSpec.DoubleValue LOAD_SHEDDING_REDUCED_MSPT;
+    public static final ForgeConfigSpec.DoubleValue LOAD_SHEDDING_DEGRADED_MSPT;
+    public static final ForgeConfigSpec.DoubleValue LOAD_SHEDDING_CRITICAL_MSPT;
+    public static final ForgeConfigSpec.DoubleValue LOAD_SHEDDING_HYSTERESIS_MSPT;
+
+    // Combat log
+    public static final ForgeConfigSpec.BooleanValue COMBAT_LOG_ENABLED;
+    public static final ForgeConfigSpec.IntValue COMBAT_LOG_SEGMENT_SIZE;
+    public static final ForgeConfigSpec.IntValue COMBAT_LOG_MAX_SEGMENTS;
+
+    // Player stats
+    public static final ForgeConfigSpec.IntValue PLAYER_STATS_FLUSH_INTERVAL;
 
     static {
         BUILDER.comment("Emergency Escape Mod Configuration").push("general");
@@ -49,6 +79,25 @@ public class ModConfig {
         LARGE_DAMAGE_THRESHOLD = BUILDER
                 .comment("Damage amount threshold for large damage (damage >= this value is large)")
                 .defineInRange("largeDamageThreshold", 5, 1, 100);
+        DOT_AGGREGATION_WINDOW = BUILDER
+                .comment("Ticks over which periodic damage (fire, lava, poison, wither, drowning, cactus..., the #emergencyescape:aggregated damage type tag) is summed before being processed once (0 = process every hit)")
+                .defineInRange("dotAggregationWindow", 10, 0, 100);
+        LAG_COMPENSATION_MAX_MS = BUILDER
+                .comment("Maximum rewind in milliseconds when classifying melee hits by player attackers, which rewind by half their ping plus one tick of client interpolation (0 = disabled)")
+                .defineInRange("lagCompensationMaxMs", 200, 0, 1000);
+        DAMAGE_ROUTES = BUILDER
+                .comment("Body part routing by damage type, first match wins: \"<type id or #tag>=<route>[*multiplier]\"",
+                        "Routes: positional (hit detection), head, body, legs, bypass (no body part damage)",
+                        "The multiplier scales body part damage only, e.g. [\"#minecraft:is_fall=legs\", \"minecraft:drown=head\", \"#minecraft:witch_resistant_to=bypass\", \"#minecraft:is_explosion=positional*1.5\"]")
+                .defineListAllowEmpty(List.of("routes"), List::of, o -> o instanceof String);
+        SEVERITY_TIERS = BUILDER
+                .comment("Experience consumption tiers by hit damage, each \"minDamage, instantSeconds, instantInterval, instantAmount, sustainedSeconds, sustainedInterval, sustainedAmount\"",
+                        "A hit uses the tier with the highest minDamage not above its damage, an amount of 0 disables that phase",
+                        "When empty, the largeDamage and smallDamage sections below are used as two tiers split at largeDamageThreshold")
+                .defineListAllowEmpty(List.of("severityTiers"), List::of, o -> o instanceof String);
+        SEVERITY_INTERPOLATE = BUILDER
+                .comment("Interpolate durations, intervals and amounts between tiers instead of stepping")
+                .define("severityInterpolate", false);
         BUILDER.pop();
 
         BUILDER.comment("Large Damage Experience Consumption Settings").push("largeDamage");
@@ -123,9 +172,10 @@ public class ModConfig {
         ESCAPE_DEATH_DELAY = BUILDER
                 .comment("Seconds until death after emergency escape activates")
                 .defineInRange("deathDelay", 4, 1, 30);
-        VOLUNTARY_ESCAPE_RADIUS = BUILDER
-                .comment("Radius in blocks - cannot voluntary escape if enemy player is within this range")
-                .defineInRange("voluntaryEscapeRadius", 30, 1, 200);
+        COMBAT_TAG_DURATION = BUILDER
+                .comment("Seconds after hitting or being hit by an enemy player during which voluntary escape is blocked",
+                        "and an escape death is credited to the last attacker")
+                .defineInRange("combatTagDuration", 15, 1, 600);
         VOLUNTARY_ESCAPE_HOLD_TIME = BUILDER
                 .comment("Time in milliseconds to hold P key to trigger voluntary escape")
                 .defineInRange("voluntaryEscapeHoldTime", 1000, 100, 5000);
@@ -138,6 +188,61 @@ public class ModConfig {
         BODY_MAX_HEALTH = BUILDER
                 .comment("Maximum body (torso) health")
                 .defineInRange("bodyMaxHealth", 40, 1, 200);
+        REGEN_DELAY = BUILDER
+                .comment("Seconds without body part damage before head and body start to regenerate")
+                .defineInRange("regenDelay", 10, 0, 600);
+        REGEN_RATE = BUILDER
+                .comment("Head and body health regenerated per second once regeneration starts (0 = no regeneration)")
+                .defineInRange("regenRate", 0.5, 0.0, 100.0);
+        BUILDER.pop();
+
+        BUILDER.comment("Mob Body Part Settings (opt-in head/body health for selected mobs)").push("mobBodyParts");
+        MOB_BODY_PART_ENTITY_TYPES = BUILDER
+                .comment("Entity types that get head/body health, e.g. [\"minecraft:zombie\", \"minecraft:skeleton\"]")
+                .defineListAllowEmpty(List.of("entityTypes"), List::of,
+                        o -> o instanceof String s && ResourceLocation.isValidResourceLocation(s));
+        MOB_HEAD_HEALTH_RATIO = BUILDER
+                .comment("Head health as a fraction of the mob's max health, the mob dies when it reaches zero")
+                .defineInRange("headHealthRatio", 0.3, 0.01, 10.0);
+        MOB_BODY_HEALTH_RATIO = BUILDER
+                .comment("Body health as a fraction of the mob's max health, the mob dies when it reaches zero")
+                .defineInRange("bodyHealthRatio", 1.0, 0.01, 10.0);
+        BUILDER.pop();
+
+        BUILDER.comment("Load Shedding Settings (degrade mod work when the server falls behind)").push("loadShedding");
+        LOAD_SHEDDING_ENABLED = BUILDER
+                .comment("Automatically step through degradation levels based on average tick time")
+                .define("enabled", true);
+        LOAD_SHEDDING_REDUCED_MSPT = BUILDER
+                .comment("Average milliseconds per tick to enter the REDUCED level")
+                .defineInRange("reducedMspt", 35.0, 1.0, 1000.0);
+        LOAD_SHEDDING_DEGRADED_MSPT = BUILDER
+                .comment("Average milliseconds per tick to enter the DEGRADED level")
+                .defineInRange("degradedMspt", 45.0, 1.0, 1000.0);
+        LOAD_SHEDDING_CRITICAL_MSPT = BUILDER
+                .comment("Average milliseconds per tick to enter the CRITICAL level")
+                .defineInRange("criticalMspt", 55.0, 1.0, 1000.0);
+        LOAD_SHEDDING_HYSTERESIS_MSPT = BUILDER
+                .comment("Average tick time must drop this many milliseconds below a level's threshold before leaving it")
+                .defineInRange("hysteresisMspt", 5.0, 0.0, 100.0);
+        BUILDER.pop();
+
+        BUILDER.comment("Combat Log Settings (binary log of hits and escapes in world/emergencyescape/combatlog)").push("combatLog");
+        COMBAT_LOG_ENABLED = BUILDER
+                .comment("Record every body part hit and escape, read on server start")
+                .define("enabled", false);
+        COMBAT_LOG_SEGMENT_SIZE = BUILDER
+                .comment("Size of each log file in megabytes, a new file is started when one fills up")
+                .defineInRange("segmentSize", 64, 1, 1024);
+        COMBAT_LOG_MAX_SEGMENTS = BUILDER
+                .comment("Log files to keep, the oldest are deleted beyond this")
+                .defineInRange("maxSegments", 32, 2, 10000);
+        BUILDER.pop();
+
+        BUILDER.comment("Player Stats Settings (long-term combat stats in world/emergencyescape/player_stats.dat)").push("playerStats");
+        PLAYER_STATS_FLUSH_INTERVAL = BUILDER
+                .comment("Seconds between saves of changed stats, they are also saved on server stop")
+                .defineInRange("flushInterval", 60, 5, 3600);
         BUILDER.pop();
 
         BUILDER.pop();
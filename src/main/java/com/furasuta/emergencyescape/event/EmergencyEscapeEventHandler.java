@@ -1,25 +1,40 @@
 package com.furasuta.emergencyescape.event;
 
 import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.api.CombatEvent;
+import com.furasuta.emergencyescape.api.CombatEventStream;
+import com.furasuta.emergencyescape.api.CombatEventType;
 import com.furasuta.emergencyescape.capability.BodyPartHealthCapability;
 import com.furasuta.emergencyescape.capability.DamageConsumptionCapability;
 import com.furasuta.emergencyescape.capability.EmergencyEscapeCapability;
 import com.furasuta.emergencyescape.config.ModConfig;
+import com.furasuta.emergencyescape.core.log.CombatLogFormat;
 import com.furasuta.emergencyescape.init.ModItems;
 import com.furasuta.emergencyescape.init.ModSounds;
-import com.furasuta.emergencyescape.network.NetworkHandler;
+import com.furasuta.emergencyescape.network.OutboundQueue;
 import com.furasuta.emergencyescape.network.SyncCapabilitiesPacket;
 import com.furasuta.emergencyescape.network.SpawnParticlesPacket;
+import com.furasuta.emergencyescape.util.BodyLayout;
+import com.furasuta.emergencyescape.util.BodyLayoutManager;
+import com.furasuta.emergencyescape.util.BodyPartHitbox;
+import com.furasuta.emergencyescape.util.CombatLog;
+import com.furasuta.emergencyescape.util.CombatTagTracker;
+import com.furasuta.emergencyescape.util.DamageOverTimeAggregator;
+import com.furasuta.emergencyescape.util.DamageRouting;
+import com.furasuta.emergencyescape.util.EscapeFreeze;
+import com.furasuta.emergencyescape.util.EscapeZoneManager;
 import com.furasuta.emergencyescape.util.HitPositionTracker;
+import com.furasuta.emergencyescape.util.LoadShedController;
+import com.furasuta.emergencyescape.util.PlayerStats;
+import com.furasuta.emergencyescape.util.PositionHistory;
+import com.furasuta.emergencyescape.util.SeverityCurve;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.damagesource.DamageSource;
-import net.minecraft.world.effect.MobEffectInstance;
-import net.minecraft.world.effect.MobEffects;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.living.LivingDamageEvent;
 import net.minecraftforge.event.entity.living.LivingDeathEvent;
@@ -27,11 +42,12 @@ import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
-import net.minecraftforge.network.PacketDistributor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Locale;
+
 @Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
 public class EmergencyEscapeEventHandler {
 
@@ -40,6 +56,12 @@ public class EmergencyEscapeEventHandler {
     // Set to true to enable debug messages in chat and console
     private static final boolean DEBUG_HIT_DETECTION = true;
 
+    // The combat event stream's only writer, taken during mod construction
+    private static CombatEventStream.Writer events = null;
+
+    // Set while an escape kills its player, so the killing hit is not handled as combat damage
+    private static boolean killingEscapedPlayer = false;
+
     @SubscribeEvent
     public static void onPlayerTick(TickEvent.PlayerTickEvent event) {
         if (event.phase != TickEvent.Phase.END) return;
@@ -47,6 +69,9 @@ public class EmergencyEscapeEventHandler {
         Player player = event.player;
         if (player.level().isClientSide()) return;
 
+        // Keep a short position history for lag-compensated hit classification
+        PositionHistory.record(player);
+
         boolean hasEscapeItem = hasEmergencyEscapeItem(player);
 
         // Update capability states based on item presence
@@ -74,23 +99,28 @@ public class EmergencyEscapeEventHandler {
             }
         });
 
-        // Handle hunger (no hunger when item is present)
-        if (hasEscapeItem) {
+        // Handle hunger (no hunger when item is present), deferred under heavy load
+        if (hasEscapeItem && LoadShedController.runNonCritical(player.tickCount)) {
             player.getFoodData().setFoodLevel(20);
             player.getFoodData().setSaturation(20.0f);
         }
 
+        // Process periodic/environmental damage summed over the aggregation window
+        float aggregatedDamage = DamageOverTimeAggregator.poll(player, ModConfig.DOT_AGGREGATION_WINDOW.get());
+        if (aggregatedDamage > 0 && hasEscapeItem) {
+            if (DEBUG_HIT_DETECTION && LoadShedController.allowDebugOutput()) {
+                logHitDetection(player, String.format("environmental_aggregated (%.1f)", aggregatedDamage), BodyPart.BODY);
+            }
+            // Route multipliers were applied per hit to the part damage only
+            applyBodyPartDamage(player, BodyPart.BODY, DamageOverTimeAggregator.getPolledPartDamage(player), aggregatedDamage, null);
+        }
+
         // Handle emergency escape state
         player.getCapability(EmergencyEscapeCapability.CAPABILITY).ifPresent(cap -> {
             if (cap.isEscaping()) {
-                // Lock player position
-                player.setPos(cap.getEscapeX(), cap.getEscapeY(), cap.getEscapeZ());
-                player.setDeltaMovement(Vec3.ZERO);
-                player.hurtMarked = true;
-
-                // Add slow falling effect
-                if (!player.hasEffect(MobEffects.SLOW_FALLING)) {
-                    player.addEffect(new MobEffectInstance(MobEffects.SLOW_FALLING, 100, 0, false, false));
+                // Player is frozen by EscapeFreeze, only snap back if they drifted
+                if (player instanceof ServerPlayer serverPlayer) {
+                    EscapeFreeze.enforce(serverPlayer, cap.getEscapeX(), cap.getEscapeY(), cap.getEscapeZ());
                 }
 
                 cap.tick();
@@ -99,16 +129,35 @@ public class EmergencyEscapeEventHandler {
                     // Spawn death effects
                     if (player instanceof ServerPlayer serverPlayer) {
                         spawnDeathEffects(serverPlayer, cap.getEscapeX(), cap.getEscapeY(), cap.getEscapeZ());
+                        EscapeFreeze.release(serverPlayer);
                     }
 
                     cap.stopEscape();
-                    player.hurt(player.damageSources().generic(), Float.MAX_VALUE);
+                    // Credit the kill to the enemy player the escape was fleeing from
+                    Player attacker = CombatTagTracker.getLastAttacker(player);
+                    DamageSource deathSource = attacker != null
+                            ? player.damageSources().playerAttack(attacker)
+                            : player.damageSources().generic();
+                    publish(CombatEventType.ESCAPE_DEATH, player)
+                            .attacker(attacker != null ? attacker.getId() : CombatEvent.NO_ATTACKER)
+                            .commit();
+                    CombatLog.escapeDeath(player, attacker);
+                    PlayerStats.increment(player, PlayerStats.Stat.ESCAPE_DEATHS);
+                    killingEscapedPlayer = true;
+                    try {
+                        // PvP settings or a team change can refuse the attack source, the escape still kills
+                        if (!player.hurt(deathSource, Float.MAX_VALUE) && attacker != null) {
+                            player.hurt(player.damageSources().generic(), Float.MAX_VALUE);
+                        }
+                    } finally {
+                        killingEscapedPlayer = false;
+                    }
                 }
             }
         });
 
         // Sync capabilities to client
-        if (player instanceof ServerPlayer serverPlayer && player.tickCount % 5 == 0) {
+        if (player instanceof ServerPlayer serverPlayer && player.tickCount % LoadShedController.getSyncInterval() == 0) {
             syncCapabilities(serverPlayer);
         }
     }
@@ -117,29 +166,96 @@ public class EmergencyEscapeEventHandler {
     public static void onLivingDamage(LivingDamageEvent event) {
         if (!(event.getEntity() instanceof Player player)) return;
         if (player.level().isClientSide()) return;
+        if (killingEscapedPlayer) return;
+
+        DamageSource source = event.getSource();
+        CombatTagTracker.recordHit(player, source.getEntity());
+
         if (!hasEmergencyEscapeItem(player)) return;
 
         float damage = event.getAmount();
-        DamageSource source = event.getSource();
+
+        // Damage types routed by config skip hit detection entirely
+        int routeIndex = DamageRouting.indexOf(source);
+        DamageRouting.Route route = DamageRouting.route(routeIndex);
+        float partDamage = damage * DamageRouting.multiplier(routeIndex);
+        if (route != DamageRouting.Route.POSITIONAL) {
+            BodyPart routedPart = switch (route) {
+                case HEAD -> BodyPart.HEAD;
+                case LEGS -> BodyPart.LEGS;
+                default -> BodyPart.BODY;
+            };
+            if (route == DamageRouting.Route.BYPASS) {
+                // Still a hit for consumption, but no part takes damage
+                partDamage = 0;
+            }
+            if (DEBUG_HIT_DETECTION && LoadShedController.allowDebugOutput()) {
+                logHitDetection(player, "routed_" + route.name().toLowerCase(Locale.ROOT), routedPart);
+            }
+            applyBodyPartDamage(player, routedPart, partDamage, damage, source);
+            return;
+        }
+
+        // Periodic/environmental damage is summed and processed once per window in onPlayerTick
+        if (ModConfig.DOT_AGGREGATION_WINDOW.get() > 0 && DamageOverTimeAggregator.isAggregated(source)) {
+            DamageOverTimeAggregator.add(player, damage, partDamage);
+            return;
+        }
+
+        HitPositionTracker.HitInfo hitInfo = HitPositionTracker.pollHit(player.getUUID(), source);
+
+        // Explosions are spread over the parts the blast could see
+        if (hitInfo != null && hitInfo.partShares != null) {
+            if (DEBUG_HIT_DETECTION && LoadShedController.allowDebugOutput()) {
+                logHitDetection(player, hitInfo.source, toBodyPart(hitInfo.bodyPart));
+            }
+            applyBodyPartDamage(player, CombatLogFormat.PART_SPLIT, partDamage * hitInfo.partShares[BodyPartHitbox.BodyPart.HEAD.ordinal()],
+                    partDamage * hitInfo.partShares[BodyPartHitbox.BodyPart.BODY.ordinal()], damage, source);
+            return;
+        }
 
         // Determine which body part was hit
-        BodyPart hitPart = determineHitBodyPart(player, source);
+        BodyPart hitPart = determineHitBodyPart(player, source, hitInfo);
+        applyBodyPartDamage(player, hitPart, partDamage, damage, source);
+
+        // Do NOT cancel vanilla damage - let default HP system work normally
+        // The body part system is an ADDITIONAL system, not a replacement
+    }
+
+    private static void applyBodyPartDamage(Player player, BodyPart hitPart, float partDamage, float damage, DamageSource source) {
+        // Legs take no body part damage, but vanilla damage still applies
+        applyBodyPartDamage(player, (byte) hitPart.ordinal(),
+                hitPart == BodyPart.HEAD ? partDamage : 0, hitPart == BodyPart.BODY ? partDamage : 0, damage, source);
+    }
 
+    /**
+     * @param loggedPart The part recorded in the combat log, one of the CombatLogFormat PART_ values
+     * @param damage The full damage of the hit, used for consumption whatever the split
+     * @param source The source of the hit, null for aggregated environmental damage
+     */
+    private static void applyBodyPartDamage(Player player, byte loggedPart, float headDamage, float bodyDamage, float damage, DamageSource source) {
         player.getCapability(BodyPartHealthCapability.CAPABILITY).ifPresent(cap -> {
             if (!cap.isActive()) return;
 
-            switch (hitPart) {
-                case HEAD:
-                    cap.damageHead(damage);
-                    break;
-                case BODY:
-                    cap.damageBody(damage);
-                    break;
-                case LEGS:
-                    // Legs take no body part damage, but vanilla damage still applies
-                    break;
+            Entity attacker = source != null ? source.getEntity() : null;
+            CombatLog.hit(player, loggedPart, damage, source);
+            PlayerStats.recordHit(player, loggedPart);
+
+            cap.recordHit();
+            if (headDamage > 0) {
+                cap.damageHead(headDamage);
+            }
+            if (bodyDamage > 0) {
+                cap.damageBody(bodyDamage);
             }
 
+            publish(CombatEventType.BODY_PART_HIT, player)
+                    .attacker(attacker != null ? attacker.getId() : CombatEvent.NO_ATTACKER)
+                    .damage(headDamage, bodyDamage)
+                    .health(cap.getHeadHealth(), cap.getBodyHealth())
+                    .amount(damage)
+                    .commit();
+
             // Check if should trigger emergency escape
             boolean shouldEscape = false;
             if (cap.getHeadHealth() <= 0 || cap.getBodyHealth() <= 0) {
@@ -147,8 +263,7 @@ public class EmergencyEscapeEventHandler {
             }
 
             // Apply damage consumption
-            boolean isLargeDamage = damage >= ModConfig.LARGE_DAMAGE_THRESHOLD.get();
-            applyDamageConsumption(player, isLargeDamage);
+            applyDamageConsumption(player, damage);
 
             // Check experience
             int totalExp = DamageConsumptionCapability.getPlayerTotalExperience(player);
@@ -157,12 +272,9 @@ public class EmergencyEscapeEventHandler {
             }
 
             if (shouldEscape) {
-                triggerEmergencyEscape(player);
+                triggerEmergencyEscape(player, false);
             }
         });
-
-        // Do NOT cancel vanilla damage - let default HP system work normally
-        // The body part system is an ADDITIONAL system, not a replacement
     }
 
     @SubscribeEvent
@@ -182,8 +294,37 @@ public class EmergencyEscapeEventHandler {
 
         // Clear escape state
         player.getCapability(EmergencyEscapeCapability.CAPABILITY).ifPresent(cap -> {
+            if (cap.isEscaping() && player instanceof ServerPlayer serverPlayer) {
+                EscapeFreeze.release(serverPlayer);
+            }
             cap.stopEscape();
         });
+
+        // Drop any pending aggregated damage and the pre-death position history
+        DamageOverTimeAggregator.clear(player.getUUID());
+        PositionHistory.clear(player.getUUID());
+        HitPositionTracker.clearHitInfo(player.getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+
+        // Transient modifiers are not saved, re-freeze a player who logged out mid-escape
+        player.getCapability(EmergencyEscapeCapability.CAPABILITY).ifPresent(cap -> {
+            if (cap.isEscaping()) {
+                EscapeFreeze.freeze(player, cap.getEscapeX(), cap.getEscapeY(), cap.getEscapeZ(),
+                        player.level().getGameTime(), cap.getEscapeTicksRemaining());
+            }
+        });
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        DamageOverTimeAggregator.clear(event.getEntity().getUUID());
+        PositionHistory.clear(event.getEntity().getUUID());
+        HitPositionTracker.clearHitInfo(event.getEntity().getUUID());
+        CombatTagTracker.remove(event.getEntity().getId());
     }
 
     @SubscribeEvent
@@ -191,6 +332,9 @@ public class EmergencyEscapeEventHandler {
         Player player = event.getEntity();
         if (player.level().isClientSide()) return;
 
+        // Combat ends with death, the kill has been credited by now
+        CombatTagTracker.remove(player.getId());
+
         // Reset capabilities on respawn
         player.getCapability(BodyPartHealthCapability.CAPABILITY).ifPresent(cap -> {
             cap.reset();
@@ -207,6 +351,7 @@ public class EmergencyEscapeEventHandler {
         });
 
         if (player instanceof ServerPlayer serverPlayer) {
+            EscapeFreeze.release(serverPlayer);
             syncCapabilities(serverPlayer);
         }
     }
@@ -236,65 +381,61 @@ public class EmergencyEscapeEventHandler {
         }
     }
 
-    public static void triggerEmergencyEscape(Player player) {
+    public static void triggerEmergencyEscape(Player player, boolean voluntary) {
         player.getCapability(EmergencyEscapeCapability.CAPABILITY).ifPresent(cap -> {
             if (cap.isEscaping()) return;
 
-            int deathDelayTicks = ModConfig.ESCAPE_DEATH_DELAY.get() * 20;
+            int deathDelayTicks = EscapeZoneManager.getDeathDelayTicks(player, ModConfig.ESCAPE_DEATH_DELAY.get() * 20);
             cap.startEscape(player, deathDelayTicks);
 
+            CombatEventStream.Writer event = publish(voluntary ? CombatEventType.VOLUNTARY_ESCAPE : CombatEventType.ESCAPE_TRIGGERED, player)
+                    .amount(deathDelayTicks);
+            player.getCapability(BodyPartHealthCapability.CAPABILITY)
+                    .ifPresent(bodyPartCap -> event.health(bodyPartCap.getHeadHealth(), bodyPartCap.getBodyHealth()));
+            event.commit();
+            CombatLog.escape(player, voluntary);
+            PlayerStats.increment(player, voluntary ? PlayerStats.Stat.VOLUNTARY_ESCAPES : PlayerStats.Stat.FORCED_ESCAPES);
+
             // Play activation sound
             if (player instanceof ServerPlayer serverPlayer) {
+                EscapeFreeze.freeze(serverPlayer, cap.getEscapeX(), cap.getEscapeY(), cap.getEscapeZ(),
+                        serverPlayer.level().getGameTime(), deathDelayTicks);
                 serverPlayer.level().playSound(null, player.getX(), player.getY(), player.getZ(),
                         ModSounds.ZERO.get(), player.getSoundSource(), 1.0f, 1.0f);
             }
         });
     }
 
-    private static void applyDamageConsumption(Player player, boolean isLargeDamage) {
-        player.getCapability(DamageConsumptionCapability.CAPABILITY).ifPresent(cap -> {
-            if (!cap.isActive()) return;
+    /**
+     * @return true while an escape is killing its player, the damage needs no hit detection
+     */
+    public static boolean isKillingEscapedPlayer() {
+        return killingEscapedPlayer;
+    }
 
-            if (isLargeDamage) {
-                // Large damage instant consumption
-                if (ModConfig.LARGE_DAMAGE_INSTANT_ENABLED.get()) {
-                    int durationTicks = ModConfig.LARGE_DAMAGE_INSTANT_DURATION.get() * 20;
-                    int intervalTicks = (int) (ModConfig.LARGE_DAMAGE_INSTANT_INTERVAL.get() * 20);
-                    int amount = ModConfig.LARGE_DAMAGE_INSTANT_AMOUNT.get();
-                    cap.addConsumption(true, true, durationTicks, intervalTicks, amount);
-                }
+    /**
+     * Takes the combat event stream's writer, called once from the mod constructor.
+     */
+    public static void installEventWriter() {
+        events = CombatEventStream.install();
+    }
 
-                // Large damage sustained consumption (starts after instant)
-                if (ModConfig.LARGE_DAMAGE_SUSTAINED_ENABLED.get()) {
-                    int instantDuration = ModConfig.LARGE_DAMAGE_INSTANT_DURATION.get() * 20;
-                    int sustainedDuration = ModConfig.LARGE_DAMAGE_SUSTAINED_DURATION.get() * 20;
-                    int intervalTicks = ModConfig.LARGE_DAMAGE_SUSTAINED_INTERVAL.get() * 20;
-                    int amount = ModConfig.LARGE_DAMAGE_SUSTAINED_AMOUNT.get();
-                    // Add with delay by including instant duration
-                    cap.addConsumption(true, false, instantDuration + sustainedDuration, intervalTicks, amount);
-                }
-            } else {
-                // Small damage instant consumption
-                if (ModConfig.SMALL_DAMAGE_INSTANT_ENABLED.get()) {
-                    int durationTicks = ModConfig.SMALL_DAMAGE_INSTANT_DURATION.get() * 20;
-                    int intervalTicks = (int) (ModConfig.SMALL_DAMAGE_INSTANT_INTERVAL.get() * 20);
-                    int amount = ModConfig.SMALL_DAMAGE_INSTANT_AMOUNT.get();
-                    cap.addConsumption(false, true, durationTicks, intervalTicks, amount);
-                }
+    /**
+     * Claims a combat event for the player, to be filled and committed by the caller.
+     */
+    public static CombatEventStream.Writer publish(CombatEventType type, Player player) {
+        return events.claim(type, player.level().getGameTime())
+                .player(player.getId(), player.getUUID().getMostSignificantBits(), player.getUUID().getLeastSignificantBits());
+    }
 
-                // Small damage sustained consumption
-                if (ModConfig.SMALL_DAMAGE_SUSTAINED_ENABLED.get()) {
-                    int instantDuration = ModConfig.SMALL_DAMAGE_INSTANT_DURATION.get() * 20;
-                    int sustainedDuration = ModConfig.SMALL_DAMAGE_SUSTAINED_DURATION.get() * 20;
-                    int intervalTicks = ModConfig.SMALL_DAMAGE_SUSTAINED_INTERVAL.get() * 20;
-                    int amount = ModConfig.SMALL_DAMAGE_SUSTAINED_AMOUNT.get();
-                    cap.addConsumption(false, false, instantDuration + sustainedDuration, intervalTicks, amount);
-                }
-            }
+    private static void applyDamageConsumption(Player player, float damage) {
+        player.getCapability(DamageConsumptionCapability.CAPABILITY).ifPresent(cap -> {
+            if (!cap.isActive()) return;
+            SeverityCurve.apply(cap, damage);
         });
     }
 
-    private static BodyPart determineHitBodyPart(Player player, DamageSource source) {
+    private static BodyPart determineHitBodyPart(Player player, DamageSource source, HitPositionTracker.HitInfo hitInfo) {
         double playerY = player.getY();
         double playerHeight = player.getBbHeight();
 
@@ -302,33 +443,14 @@ public class EmergencyEscapeEventHandler {
         BodyPart result = BodyPart.BODY; // Default
 
         // First, try to get accurate body part from Mixin tracker (uses raycast & hitbox detection)
-        HitPositionTracker.HitInfo hitInfo = HitPositionTracker.getLastHitInfo(player.getUUID());
         if (hitInfo != null && hitInfo.bodyPart != null) {
             hitSource = hitInfo.source;
-
-            // Convert from BodyPartHitbox.BodyPart to our BodyPart enum
-            switch (hitInfo.bodyPart) {
-                case HEAD:
-                    result = BodyPart.HEAD;
-                    break;
-                case BODY:
-                    result = BodyPart.BODY;
-                    break;
-                case LEGS:
-                    result = BodyPart.LEGS;
-                    break;
-                default:
-                    result = BodyPart.BODY;
-                    break;
-            }
+            result = toBodyPart(hitInfo.bodyPart);
         }
         // Fallback: use simpler detection methods
         else {
-            // Head: top 28% of player (0.72 - 1.0, matching BodyPartHitbox)
-            double headThreshold = playerY + playerHeight * 0.72;
-            // Body: middle 41% of player (0.31 - 0.72)
-            double bodyThreshold = playerY + playerHeight * 0.31;
-
+            // Classified by height against the layout of the player's current pose
+            BodyLayout layout = BodyLayoutManager.get(player);
             double hitY = playerY + playerHeight * 0.5; // Default to center
 
             // For projectiles - use projectile's current position
@@ -336,13 +458,7 @@ public class EmergencyEscapeEventHandler {
                 hitY = source.getDirectEntity().getY();
                 hitSource = "projectile_fallback (" + source.getDirectEntity().getType().toShortString() + ")";
 
-                if (hitY >= headThreshold) {
-                    result = BodyPart.HEAD;
-                } else if (hitY >= bodyThreshold) {
-                    result = BodyPart.BODY;
-                } else {
-                    result = BodyPart.LEGS;
-                }
+                result = toBodyPart(layout.getCategory(layout.partAtHeight((hitY - playerY) / playerHeight)));
             }
             // For melee attacks - use attacker's eye height
             else if (source.getEntity() != null) {
@@ -353,13 +469,7 @@ public class EmergencyEscapeEventHandler {
                 // Clamp to player's bounds
                 hitY = Math.max(playerY, Math.min(hitY, playerY + playerHeight));
 
-                if (hitY >= headThreshold) {
-                    result = BodyPart.HEAD;
-                } else if (hitY >= bodyThreshold) {
-                    result = BodyPart.BODY;
-                } else {
-                    result = BodyPart.LEGS;
-                }
+                result = toBodyPart(layout.getCategory(layout.partAtHeight((hitY - playerY) / playerHeight)));
             } else {
                 // Default to body for environmental damage
                 hitSource = "environmental (" + source.type().msgId() + ")";
@@ -368,27 +478,40 @@ public class EmergencyEscapeEventHandler {
         }
 
         // Debug output
-        if (DEBUG_HIT_DETECTION) {
-            String debugMsg = String.format("[HitDetect] Source: %s | Result: %s", hitSource, result.name());
-            LOGGER.info(debugMsg);
-
-            // Also send to player chat for easy debugging in-game
-            if (player instanceof ServerPlayer serverPlayer) {
-                // Color code based on body part
-                String colorCode = switch (result) {
-                    case HEAD -> "§c"; // Red for head
-                    case BODY -> "§e"; // Yellow for body
-                    case LEGS -> "§a"; // Green for legs
-                };
-                serverPlayer.sendSystemMessage(Component.literal(
-                    String.format("§7[Debug] §f%s → %s%s", hitSource, colorCode, result.name())
-                ));
-            }
+        if (DEBUG_HIT_DETECTION && LoadShedController.allowDebugOutput()) {
+            logHitDetection(player, hitSource, result);
         }
 
         return result;
     }
 
+    // Convert from BodyPartHitbox.BodyPart to our BodyPart enum
+    private static BodyPart toBodyPart(BodyPartHitbox.BodyPart part) {
+        return switch (part) {
+            case HEAD -> BodyPart.HEAD;
+            case LEGS -> BodyPart.LEGS;
+            default -> BodyPart.BODY;
+        };
+    }
+
+    private static void logHitDetection(Player player, String hitSource, BodyPart result) {
+        String debugMsg = String.format("[HitDetect] Source: %s | Result: %s", hitSource, result.name());
+        LOGGER.info(debugMsg);
+
+        // Also send to player chat for easy debugging in-game
+        if (player instanceof ServerPlayer serverPlayer) {
+            // Color code based on body part
+            String colorCode = switch (result) {
+                case HEAD -> "§c"; // Red for head
+                case BODY -> "§e"; // Yellow for body
+                case LEGS -> "§a"; // Green for legs
+            };
+            serverPlayer.sendSystemMessage(Component.literal(
+                String.format("§7[Debug] §f%s → %s%s", hitSource, colorCode, result.name())
+            ));
+        }
+    }
+
     private static void spawnDeathEffects(ServerPlayer player, double x, double y, double z) {
         ServerLevel level = player.serverLevel();
 
@@ -397,8 +520,8 @@ public class EmergencyEscapeEventHandler {
 
         // Send packet to spawn particles on all nearby clients
         SpawnParticlesPacket packet = new SpawnParticlesPacket(x, y, z);
-        NetworkHandler.CHANNEL.send(packet, PacketDistributor.NEAR.with(
-                new PacketDistributor.TargetPoint(x, y, z, 64, level.dimension())));
+        double range = LoadShedController.getEffectRange();
+        OutboundQueue.sendNear(level, x, y, z, range, packet);
     }
 
     public static boolean hasEmergencyEscapeItem(Player player) {
@@ -420,11 +543,11 @@ public class EmergencyEscapeEventHandler {
                         bodyPartCap.getMaxHeadHealth(),
                         bodyPartCap.getMaxBodyHealth(),
                         bodyPartCap.isActive(),
+                        bodyPartCap.getHitSequence(),
                         escapeCap.isEscaping(),
-                        escapeCap.getEscapeTicksRemaining(),
                         escapeCap.hasItem()
                 );
-                NetworkHandler.CHANNEL.send(packet, PacketDistributor.PLAYER.with(player));
+                OutboundQueue.send(player, packet);
             });
         });
     }
@@ -0,0 +1,72 @@
+package com.furasuta.emergencyescape.event;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.util.BodyPartHitbox;
+import com.furasuta.emergencyescape.util.DamageRouting;
+import com.furasuta.emergencyescape.util.HitPositionTracker;
+import com.furasuta.emergencyescape.util.MobBodyPartStore;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.entity.living.LivingDamageEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Head/body health for mobs listed in the config. Only positional hits (melee, projectiles,
+ * explosions) and damage types routed to a part count, and depleting either part makes the hit lethal so kill credit is kept.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class MobBodyPartHandler {
+
+    @SubscribeEvent
+    public static void onLivingDamage(LivingDamageEvent event) {
+        LivingEntity entity = event.getEntity();
+        if (entity instanceof Player || entity.level().isClientSide()) return;
+        if (!MobBodyPartStore.isTracked(entity.getType())) return;
+
+        float damage = event.getAmount();
+        int routeIndex = DamageRouting.indexOf(event.getSource());
+        DamageRouting.Route route = DamageRouting.route(routeIndex);
+        float partDamage = damage * DamageRouting.multiplier(routeIndex);
+
+        float headDamage;
+        float bodyDamage;
+        if (route != DamageRouting.Route.POSITIONAL) {
+            headDamage = route == DamageRouting.Route.HEAD ? partDamage : 0;
+            bodyDamage = route == DamageRouting.Route.BODY ? partDamage : 0;
+            if (headDamage <= 0 && bodyDamage <= 0) return;
+        } else {
+            HitPositionTracker.HitInfo hitInfo = HitPositionTracker.pollHit(entity.getUUID(), event.getSource());
+            if (hitInfo == null || hitInfo.bodyPart == null) return;
+
+            if (hitInfo.partShares != null) {
+                headDamage = partDamage * hitInfo.partShares[BodyPartHitbox.BodyPart.HEAD.ordinal()];
+                bodyDamage = partDamage * hitInfo.partShares[BodyPartHitbox.BodyPart.BODY.ordinal()];
+            } else {
+                headDamage = hitInfo.bodyPart == BodyPartHitbox.BodyPart.HEAD ? partDamage : 0;
+                bodyDamage = hitInfo.bodyPart == BodyPartHitbox.BodyPart.BODY ? partDamage : 0;
+            }
+        }
+
+        if (MobBodyPartStore.damage(entity.getId(), entity.getMaxHealth(), headDamage, bodyDamage)) {
+            // Depleted head or body finishes the mob with this hit
+            event.setAmount(Math.max(damage, entity.getHealth()));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (event.getLevel().isClientSide() || !(event.getEntity() instanceof LivingEntity entity)) return;
+        if (entity instanceof Player) return;
+
+        MobBodyPartStore.remove(entity.getId());
+        HitPositionTracker.clearHitInfo(entity.getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        MobBodyPartStore.clear();
+    }
+}
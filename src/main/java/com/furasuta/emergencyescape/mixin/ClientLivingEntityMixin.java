@@ -0,0 +1,22 @@
+package com.furasuta.emergencyescape.mixin;
+
+import com.furasuta.emergencyescape.client.ClientDamagePredictor;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(LivingEntity.class)
+public abstract class ClientLivingEntityMixin {
+
+    /**
+     * Hands the damage source the server broadcast for this entity to the HUD predictor,
+     * so the body part can be classified locally before the next capability sync.
+     */
+    @Inject(method = "handleDamageEvent", at = @At("HEAD"))
+    private void onHandleDamageEvent(DamageSource source, CallbackInfo ci) {
+        ClientDamagePredictor.onDamageEvent((LivingEntity) (Object) this, source);
+    }
+}
@@ -0,0 +1,86 @@
+package com.furasuta.emergencyescape.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Carries every message queued for one player during a tick as a single payload.
+ * Message types must be registered with {@link #register} to be bundled.
+ */
+public class BundlePacket {
+
+    private static class MessageType<T> {
+        final int id;
+        final Class<T> type;
+        final BiConsumer<T, FriendlyByteBuf> encoder;
+        final Function<FriendlyByteBuf, T> decoder;
+        final BiConsumer<T, CustomPayloadEvent.Context> handler;
+
+        MessageType(int id, Class<T> type, BiConsumer<T, FriendlyByteBuf> encoder,
+                    Function<FriendlyByteBuf, T> decoder, BiConsumer<T, CustomPayloadEvent.Context> handler) {
+            this.id = id;
+            this.type = type;
+            this.encoder = encoder;
+            this.decoder = decoder;
+            this.handler = handler;
+        }
+
+        void encode(Object message, FriendlyByteBuf buf) {
+            encoder.accept(type.cast(message), buf);
+        }
+
+        void handle(Object message, CustomPayloadEvent.Context ctx) {
+            handler.accept(type.cast(message), ctx);
+        }
+    }
+
+    private static final List<MessageType<?>> TYPES = new ArrayList<>();
+    private static final Map<Class<?>, MessageType<?>> BY_CLASS = new HashMap<>();
+
+    private final List<Object> messages;
+
+    public BundlePacket(List<Object> messages) {
+        this.messages = messages;
+    }
+
+    public static <T> void register(Class<T> type, BiConsumer<T, FriendlyByteBuf> encoder,
+                                    Function<FriendlyByteBuf, T> decoder, BiConsumer<T, CustomPayloadEvent.Context> handler) {
+        MessageType<T> messageType = new MessageType<>(TYPES.size(), type, encoder, decoder, handler);
+        TYPES.add(messageType);
+        BY_CLASS.put(type, messageType);
+    }
+
+    public static void encode(BundlePacket packet, FriendlyByteBuf buf) {
+        buf.writeVarInt(packet.messages.size());
+        for (Object message : packet.messages) {
+            MessageType<?> type = BY_CLASS.get(message.getClass());
+            buf.writeVarInt(type.id);
+            type.encode(message, buf);
+        }
+    }
+
+    public static BundlePacket decode(FriendlyByteBuf buf) {
+        int count = buf.readVarInt();
+        List<Object> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MessageType<?> type = TYPES.get(buf.readVarInt());
+            messages.add(type.decoder.apply(buf));
+        }
+        return new BundlePacket(messages);
+    }
+
+    public static void handle(BundlePacket packet, CustomPayloadEvent.Context ctx) {
+        // Each bundled message is handled in order, exactly as if it had arrived on its own
+        for (Object message : packet.messages) {
+            BY_CLASS.get(message.getClass()).handle(message, ctx);
+        }
+        ctx.setPacketHandled(true);
+    }
+}
@@ -0,0 +1,54 @@
+package com.furasuta.emergencyescape.network;
+
+import com.furasuta.emergencyescape.client.ClientPacketHandler;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+import net.minecraftforge.fml.DistExecutor;
+
+/**
+ * Sent once when an emergency escape starts or stops.
+ * The client keeps the player frozen on its own until the next state change, and
+ * extrapolates the countdown from the start tick and duration.
+ */
+public class EscapeStatePacket {
+    private final boolean frozen;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final long startTick;
+    private final int durationTicks;
+
+    public EscapeStatePacket(boolean frozen, double x, double y, double z, long startTick, int durationTicks) {
+        this.frozen = frozen;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.startTick = startTick;
+        this.durationTicks = durationTicks;
+    }
+
+    public static void encode(EscapeStatePacket packet, FriendlyByteBuf buf) {
+        buf.writeBoolean(packet.frozen);
+        buf.writeDouble(packet.x);
+        buf.writeDouble(packet.y);
+        buf.writeDouble(packet.z);
+        buf.writeLong(packet.startTick);
+        buf.writeVarInt(packet.durationTicks);
+    }
+
+    public static EscapeStatePacket decode(FriendlyByteBuf buf) {
+        return new EscapeStatePacket(buf.readBoolean(), buf.readDouble(), buf.readDouble(), buf.readDouble(),
+                buf.readLong(), buf.readVarInt());
+    }
+
+    public static void handle(EscapeStatePacket packet, CustomPayloadEvent.Context ctx) {
+        ctx.enqueueWork(() -> {
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> {
+                ClientPacketHandler.handleEscapeState(packet.frozen, packet.x, packet.y, packet.z,
+                        packet.startTick, packet.durationTicks);
+            });
+        });
+        ctx.setPacketHandled(true);
+    }
+}
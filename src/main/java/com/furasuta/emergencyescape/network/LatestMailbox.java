@@ -0,0 +1,34 @@
+package com.furasuta.emergencyescape.network;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single-slot, latest-wins mailbox for high-frequency state packets.
+ * The network thread posts decoded state, the main thread takes it once per tick.
+ * Intermediate states that arrive before the next take are simply overwritten,
+ * so a client hitch never builds up a queue of stale updates.
+ */
+public class LatestMailbox<T> {
+    private final AtomicReference<T> slot = new AtomicReference<>();
+
+    public void post(T message) {
+        slot.set(message);
+    }
+
+    /**
+     * @return The most recent message posted since the last take, or null if there is none
+     */
+    @Nullable
+    public T take() {
+        // Plain read first so an empty mailbox costs no atomic write
+        if (slot.get() == null) {
+            return null;
+        }
+        return slot.getAndSet(null);
+    }
+
+    public void clear() {
+        slot.set(null);
+    }
+}
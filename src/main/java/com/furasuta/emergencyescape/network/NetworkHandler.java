@@ -4,11 +4,11 @@ import com.furasuta.emergencyescape.EmergencyEscapeMod;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.network.ChannelBuilder;
 import net.minecraftforge.network.NetworkDirection;
-import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.network.SimpleChannel;
 
 public class NetworkHandler {
-    private static final int PROTOCOL_VERSION = 1;
+    // Bump whenever a packet is added or its layout changes, so mismatched clients are refused at login
+    private static final int PROTOCOL_VERSION = 2;
 
     public static final SimpleChannel CHANNEL = ChannelBuilder
             .named(new ResourceLocation(EmergencyEscapeMod.MODID, "main"))
@@ -19,7 +19,7 @@ public class NetworkHandler {
         CHANNEL.messageBuilder(SyncCapabilitiesPacket.class, NetworkDirection.PLAY_TO_CLIENT)
                 .encoder(SyncCapabilitiesPacket::encode)
                 .decoder(SyncCapabilitiesPacket::decode)
-                .consumerMainThread(SyncCapabilitiesPacket::handle)
+                .consumerNetworkThread(SyncCapabilitiesPacket::handle)
                 .add();
 
         CHANNEL.messageBuilder(SpawnParticlesPacket.class, NetworkDirection.PLAY_TO_CLIENT)
@@ -28,6 +28,26 @@ public class NetworkHandler {
                 .consumerMainThread(SpawnParticlesPacket::handle)
                 .add();
 
+        CHANNEL.messageBuilder(EscapeStatePacket.class, NetworkDirection.PLAY_TO_CLIENT)
+                .encoder(EscapeStatePacket::encode)
+                .decoder(EscapeStatePacket::decode)
+                .consumerMainThread(EscapeStatePacket::handle)
+                .add();
+
+        CHANNEL.messageBuilder(BundlePacket.class, NetworkDirection.PLAY_TO_CLIENT)
+                .encoder(BundlePacket::encode)
+                .decoder(BundlePacket::decode)
+                .consumerMainThread(BundlePacket::handle)
+                .add();
+
+        // Server-to-client messages that OutboundQueue may bundle together
+        BundlePacket.register(SyncCapabilitiesPacket.class,
+                SyncCapabilitiesPacket::encode, SyncCapabilitiesPacket::decode, SyncCapabilitiesPacket::handle);
+        BundlePacket.register(SpawnParticlesPacket.class,
+                SpawnParticlesPacket::encode, SpawnParticlesPacket::decode, SpawnParticlesPacket::handle);
+        BundlePacket.register(EscapeStatePacket.class,
+                EscapeStatePacket::encode, EscapeStatePacket::decode, EscapeStatePacket::handle);
+
         CHANNEL.messageBuilder(VoluntaryEscapePacket.class, NetworkDirection.PLAY_TO_SERVER)
                 .encoder(VoluntaryEscapePacket::encode)
                 .decoder(VoluntaryEscapePacket::decode)
@@ -0,0 +1,64 @@
+package com.furasuta.emergencyescape.network;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.network.PacketDistributor;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-player outbound queue for server-to-client messages.
+ * Everything queued during a server tick is flushed at the end of the tick,
+ * bundled into one {@link BundlePacket} when a player has more than one message.
+ * Must only be used from the server thread.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class OutboundQueue {
+
+    private static final Map<ServerPlayer, List<Object>> pending = new IdentityHashMap<>();
+
+    public static void send(ServerPlayer player, Object message) {
+        pending.computeIfAbsent(player, p -> new ArrayList<>(4)).add(message);
+    }
+
+    /**
+     * Queues a message for every player of the level within range of the point.
+     */
+    public static void sendNear(ServerLevel level, double x, double y, double z, double range, Object message) {
+        double rangeSqr = range * range;
+        for (ServerPlayer player : level.players()) {
+            if (player.distanceToSqr(x, y, z) <= rangeSqr) {
+                send(player, message);
+            }
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || pending.isEmpty()) return;
+        flush();
+    }
+
+    public static void flush() {
+        for (Map.Entry<ServerPlayer, List<Object>> entry : pending.entrySet()) {
+            ServerPlayer player = entry.getKey();
+            List<Object> messages = entry.getValue();
+            if (player.hasDisconnected()) continue;
+
+            if (messages.size() == 1) {
+                NetworkHandler.CHANNEL.send(messages.get(0), PacketDistributor.PLAYER.with(player));
+            } else {
+                NetworkHandler.CHANNEL.send(new BundlePacket(messages), PacketDistributor.PLAYER.with(player));
+            }
+        }
+        pending.clear();
+    }
+}
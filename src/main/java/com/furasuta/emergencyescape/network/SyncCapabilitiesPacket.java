@@ -2,29 +2,30 @@ package com.furasuta.emergencyescape.network;
 
 import com.furasuta.emergencyescape.client.ClientPacketHandler;
 import net.minecraft.network.FriendlyByteBuf;
-import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.event.network.CustomPayloadEvent;
-import net.minecraftforge.fml.DistExecutor;
 
 public class SyncCapabilitiesPacket {
+    // Only the newest sync matters, the client takes it once per tick
+    public static final LatestMailbox<SyncCapabilitiesPacket> MAILBOX = new LatestMailbox<>();
+
     private final float headHealth;
     private final float bodyHealth;
     private final int maxHeadHealth;
     private final int maxBodyHealth;
     private final boolean isActive;
+    private final int hitSequence;
     private final boolean isEscaping;
-    private final int escapeTicksRemaining;
     private final boolean hasItem;
 
     public SyncCapabilitiesPacket(float headHealth, float bodyHealth, int maxHeadHealth, int maxBodyHealth,
-                                   boolean isActive, boolean isEscaping, int escapeTicksRemaining, boolean hasItem) {
+                                   boolean isActive, int hitSequence, boolean isEscaping, boolean hasItem) {
         this.headHealth = headHealth;
         this.bodyHealth = bodyHealth;
         this.maxHeadHealth = maxHeadHealth;
         this.maxBodyHealth = maxBodyHealth;
         this.isActive = isActive;
+        this.hitSequence = hitSequence;
         this.isEscaping = isEscaping;
-        this.escapeTicksRemaining = escapeTicksRemaining;
         this.hasItem = hasItem;
     }
 
@@ -34,8 +35,8 @@ public class SyncCapabilitiesPacket {
         buf.writeInt(packet.maxHeadHealth);
         buf.writeInt(packet.maxBodyHealth);
         buf.writeBoolean(packet.isActive);
+        buf.writeVarInt(packet.hitSequence);
         buf.writeBoolean(packet.isEscaping);
-        buf.writeInt(packet.escapeTicksRemaining);
         buf.writeBoolean(packet.hasItem);
     }
 
@@ -46,23 +47,27 @@ public class SyncCapabilitiesPacket {
                 buf.readInt(),
                 buf.readInt(),
                 buf.readBoolean(),
+                buf.readVarInt(),
                 buf.readBoolean(),
-                buf.readInt(),
                 buf.readBoolean()
         );
     }
 
     public static void handle(SyncCapabilitiesPacket packet, CustomPayloadEvent.Context ctx) {
-        ctx.enqueueWork(() -> {
-            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> {
-                ClientPacketHandler.handleSyncCapabilities(
-                        packet.headHealth, packet.bodyHealth,
-                        packet.maxHeadHealth, packet.maxBodyHealth,
-                        packet.isActive, packet.isEscaping,
-                        packet.escapeTicksRemaining, packet.hasItem
-                );
-            });
-        });
+        // Runs on the network thread, no main thread work is scheduled per packet
+        MAILBOX.post(packet);
         ctx.setPacketHandled(true);
     }
+
+    /**
+     * Applies this state to the local player. Client main thread only.
+     */
+    public void apply() {
+        ClientPacketHandler.handleSyncCapabilities(
+                headHealth, bodyHealth,
+                maxHeadHealth, maxBodyHealth,
+                isActive, hitSequence,
+                isEscaping, hasItem
+        );
+    }
 }
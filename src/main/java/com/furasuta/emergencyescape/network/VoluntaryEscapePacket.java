@@ -1,15 +1,13 @@
 package com.furasuta.emergencyescape.network;
 
 import com.furasuta.emergencyescape.capability.EmergencyEscapeCapability;
-import com.furasuta.emergencyescape.config.ModConfig;
 import com.furasuta.emergencyescape.event.EmergencyEscapeEventHandler;
+import com.furasuta.emergencyescape.util.CombatTagTracker;
+import com.furasuta.emergencyescape.util.EscapeZoneManager;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.scores.PlayerTeam;
 import net.minecraftforge.event.network.CustomPayloadEvent;
 
-import java.util.List;
-
 public class VoluntaryEscapePacket {
 
     public VoluntaryEscapePacket() {
@@ -35,35 +33,16 @@ public class VoluntaryEscapePacket {
             player.getCapability(EmergencyEscapeCapability.CAPABILITY).ifPresent(cap -> {
                 if (cap.isEscaping()) return;
 
-                // Check if enemy players are nearby
-                if (isEnemyPlayerNearby(player)) return;
+                // Players in combat with an enemy player cannot escape voluntarily
+                if (CombatTagTracker.isTagged(player)) return;
+
+                // Arenas can disable voluntary escape with a zone
+                if (!EscapeZoneManager.allowsVoluntaryEscape(player)) return;
 
                 // Trigger voluntary escape
-                EmergencyEscapeEventHandler.triggerEmergencyEscape(player);
+                EmergencyEscapeEventHandler.triggerEmergencyEscape(player, true);
             });
         });
         ctx.setPacketHandled(true);
     }
-
-    private static boolean isEnemyPlayerNearby(ServerPlayer player) {
-        double radius = ModConfig.VOLUNTARY_ESCAPE_RADIUS.get();
-        PlayerTeam playerTeam = player.getTeam();
-
-        List<ServerPlayer> nearbyPlayers = player.serverLevel().getPlayers(p -> {
-            if (p == player) return false;
-            double distance = p.distanceTo(player);
-            return distance <= radius;
-        });
-
-        for (ServerPlayer nearbyPlayer : nearbyPlayers) {
-            PlayerTeam nearbyTeam = nearbyPlayer.getTeam();
-
-            // If either player has no team, or they are on different teams
-            if (playerTeam == null || nearbyTeam == null || !playerTeam.equals(nearbyTeam)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
 }
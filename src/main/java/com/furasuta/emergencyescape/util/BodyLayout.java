@@ -0,0 +1,73 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.core.PartGeometry;
+
+import java.util.List;
+
+/**
+ * A body-part model for one entity type and pose: named parts with their hit category, over a
+ * {@link PartGeometry} that does the actual ray and point tests in the entity's local frame.
+ */
+public class BodyLayout {
+
+    private final String[] names;
+    private final BodyPartHitbox.BodyPart[] categories;
+    private final int[] categoryOrdinals;
+    private final PartGeometry geometry;
+
+    public BodyLayout(List<String> names, List<BodyPartHitbox.BodyPart> categories, double[] bounds) {
+        this.names = names.toArray(new String[0]);
+        this.categories = categories.toArray(new BodyPartHitbox.BodyPart[0]);
+        this.categoryOrdinals = new int[this.categories.length];
+        for (int i = 0; i < this.categories.length; i++) {
+            categoryOrdinals[i] = this.categories[i].ordinal();
+        }
+        this.geometry = new PartGeometry(bounds);
+    }
+
+    public int getPartCount() {
+        return geometry.getPartCount();
+    }
+
+    public String getName(int part) {
+        return names[part];
+    }
+
+    public BodyPartHitbox.BodyPart getCategory(int part) {
+        return part >= 0 ? categories[part] : BodyPartHitbox.BodyPart.NONE;
+    }
+
+    PartGeometry getGeometry() {
+        return geometry;
+    }
+
+    int[] getCategoryOrdinals() {
+        return categoryOrdinals;
+    }
+
+    /**
+     * @return The index of the closest part the ray enters, or -1 if it misses every part
+     */
+    public int rayHit(double entityX, double entityY, double entityZ, double height, double width, float yaw,
+                      double originX, double originY, double originZ,
+                      double dirX, double dirY, double dirZ) {
+        return geometry.rayHit(entityX, entityY, entityZ, height, width, yaw, originX, originY, originZ, dirX, dirY, dirZ);
+    }
+
+    /**
+     * @return The index of the first part containing the point (with a small margin),
+     *         or the part at the point's height if none does
+     */
+    public int partAt(double entityX, double entityY, double entityZ, double height, double width, float yaw,
+                      double x, double y, double z) {
+        return geometry.partAt(entityX, entityY, entityZ, height, width, yaw, x, y, z);
+    }
+
+    /**
+     * @param relativeY Height of the hit as a fraction of the hitbox height
+     * @return The first part spanning that height, or the part closest to it
+     */
+    public int partAtHeight(double relativeY) {
+        return geometry.partAtHeight(relativeY);
+    }
+}
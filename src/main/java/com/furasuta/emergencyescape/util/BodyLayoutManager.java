@@ -0,0 +1,175 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Pose;
+import net.minecraftforge.event.AddReloadListenerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Loads body-part layouts from datapacks and resolves the layout for an entity type and pose.
+ *
+ * Files live in data/<namespace>/emergencyescape/body_layouts/ and look like:
+ * <pre>
+ * {
+ *   "entity_types": ["minecraft:player"],
+ *   "poses": ["crouching"],
+ *   "parts": [
+ *     {"name": "head", "category": "head", "from": [-0.42, 0.72, -0.42], "to": [0.42, 1.0, 0.42]}
+ *   ]
+ * }
+ * </pre>
+ * Omitting "poses" makes the layout the default for every pose of those types.
+ * Layouts are compiled on /reload into a per-type array indexed by pose ordinal, so a lookup
+ * is one identity map get and an array index.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class BodyLayoutManager extends SimpleJsonResourceReloadListener {
+
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final int POSE_COUNT = Pose.values().length;
+
+    // The original fixed player model, used for anything without a layout
+    public static final BodyLayout DEFAULT = new BodyLayout(
+            List.of("head", "body", "legs"),
+            List.of(BodyPartHitbox.BodyPart.HEAD, BodyPartHitbox.BodyPart.BODY, BodyPartHitbox.BodyPart.LEGS),
+            new double[]{
+                    -0.4167, 0.72, -0.4167, 0.4167, 1.0, 0.4167,
+                    -0.5, 0.31, -0.5, 0.5, 0.72, 0.5,
+                    -0.5, 0.0, -0.5, 0.5, 0.31, 0.5
+            });
+
+    private static volatile Map<EntityType<?>, BodyLayout[]> layouts = Map.of();
+
+    public BodyLayoutManager() {
+        super(GSON, EmergencyEscapeMod.MODID + "/body_layouts");
+    }
+
+    @SubscribeEvent
+    public static void onAddReloadListeners(AddReloadListenerEvent event) {
+        event.addListener(new BodyLayoutManager());
+    }
+
+    public static BodyLayout get(Entity entity) {
+        return get(entity.getType(), entity.getPose().ordinal());
+    }
+
+    public static BodyLayout get(EntityType<?> type, int poseOrdinal) {
+        BodyLayout[] byPose = layouts.get(type);
+        return byPose != null ? byPose[poseOrdinal] : DEFAULT;
+    }
+
+    @Override
+    protected void apply(Map<ResourceLocation, JsonElement> files, ResourceManager resourceManager, ProfilerFiller profiler) {
+        Map<EntityType<?>, BodyLayout[]> compiled = new IdentityHashMap<>();
+        Map<EntityType<?>, BodyLayout> defaults = new IdentityHashMap<>();
+
+        for (Map.Entry<ResourceLocation, JsonElement> entry : files.entrySet()) {
+            try {
+                JsonObject json = GsonHelper.convertToJsonObject(entry.getValue(), "body layout");
+                BodyLayout layout = parseLayout(json);
+                List<Pose> poses = parsePoses(json);
+
+                for (JsonElement typeElement : GsonHelper.getAsJsonArray(json, "entity_types")) {
+                    ResourceLocation typeId = new ResourceLocation(GsonHelper.convertToString(typeElement, "entity type"));
+                    EntityType<?> type = BuiltInRegistries.ENTITY_TYPE.getOptional(typeId)
+                            .orElseThrow(() -> new JsonParseException("Unknown entity type " + typeId));
+
+                    if (poses.isEmpty()) {
+                        defaults.put(type, layout);
+                    } else {
+                        BodyLayout[] byPose = compiled.computeIfAbsent(type, t -> new BodyLayout[POSE_COUNT]);
+                        for (Pose pose : poses) {
+                            byPose[pose.ordinal()] = layout;
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                EmergencyEscapeMod.LOGGER.error("Skipping body layout {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+
+        // Fill poses without their own layout with the type default
+        for (Map.Entry<EntityType<?>, BodyLayout> entry : defaults.entrySet()) {
+            compiled.computeIfAbsent(entry.getKey(), t -> new BodyLayout[POSE_COUNT]);
+        }
+        for (Map.Entry<EntityType<?>, BodyLayout[]> entry : compiled.entrySet()) {
+            BodyLayout fallback = defaults.getOrDefault(entry.getKey(), DEFAULT);
+            BodyLayout[] byPose = entry.getValue();
+            for (int i = 0; i < POSE_COUNT; i++) {
+                if (byPose[i] == null) byPose[i] = fallback;
+            }
+        }
+
+        layouts = compiled;
+        EmergencyEscapeMod.LOGGER.info("Loaded body layouts for {} entity types", compiled.size());
+    }
+
+    private static BodyLayout parseLayout(JsonObject json) {
+        JsonArray parts = GsonHelper.getAsJsonArray(json, "parts");
+        if (parts.isEmpty()) {
+            throw new JsonParseException("Layout has no parts");
+        }
+
+        List<String> names = new ArrayList<>();
+        List<BodyPartHitbox.BodyPart> categories = new ArrayList<>();
+        double[] bounds = new double[parts.size() * 6];
+        for (int i = 0; i < parts.size(); i++) {
+            JsonObject part = GsonHelper.convertToJsonObject(parts.get(i), "part");
+            names.add(GsonHelper.getAsString(part, "name"));
+
+            String category = GsonHelper.getAsString(part, "category").toUpperCase(Locale.ROOT);
+            BodyPartHitbox.BodyPart bodyPart = Arrays.stream(BodyPartHitbox.BodyPart.values())
+                    .filter(p -> p != BodyPartHitbox.BodyPart.NONE && p.name().equals(category))
+                    .findFirst()
+                    .orElseThrow(() -> new JsonParseException("Unknown category " + category));
+            categories.add(bodyPart);
+
+            JsonArray from = GsonHelper.getAsJsonArray(part, "from");
+            JsonArray to = GsonHelper.getAsJsonArray(part, "to");
+            for (int axis = 0; axis < 3; axis++) {
+                double a = GsonHelper.convertToDouble(from.get(axis), "from");
+                double b = GsonHelper.convertToDouble(to.get(axis), "to");
+                bounds[i * 6 + axis] = Math.min(a, b);
+                bounds[i * 6 + axis + 3] = Math.max(a, b);
+            }
+        }
+        return new BodyLayout(names, categories, bounds);
+    }
+
+    private static List<Pose> parsePoses(JsonObject json) {
+        List<Pose> poses = new ArrayList<>();
+        if (json.has("poses")) {
+            for (JsonElement element : GsonHelper.getAsJsonArray(json, "poses")) {
+                String name = GsonHelper.convertToString(element, "pose").toUpperCase(Locale.ROOT);
+                try {
+                    poses.add(Pose.valueOf(name));
+                } catch (IllegalArgumentException e) {
+                    throw new JsonParseException("Unknown pose " + name);
+                }
+            }
+        }
+        return poses;
+    }
+}
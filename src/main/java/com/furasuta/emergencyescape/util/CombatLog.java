@@ -0,0 +1,127 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.capability.BodyPartHealthCapability;
+import com.furasuta.emergencyescape.config.ModConfig;
+import com.furasuta.emergencyescape.core.log.CombatLogFormat;
+import com.furasuta.emergencyescape.core.log.CombatLogWriter;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Optional binary log of every body part hit and escape, for offline analysis with
+ * {@link com.furasuta.emergencyescape.core.log.CombatLogReport}. Written to
+ * world/emergencyescape/combatlog through a {@link CombatLogWriter}, so logging a hit is a
+ * few stores into a mapped file and never waits on disk.
+ *
+ * Opened on server start if enabled in the config. Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class CombatLog {
+
+    private static CombatLogWriter writer = null;
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        if (!ModConfig.COMBAT_LOG_ENABLED.get()) return;
+
+        Path directory = event.getServer().getWorldPath(LevelResource.ROOT).resolve(EmergencyEscapeMod.MODID).resolve("combatlog");
+        try {
+            writer = new CombatLogWriter(directory, ModConfig.COMBAT_LOG_SEGMENT_SIZE.get() * 1024 * 1024,
+                    ModConfig.COMBAT_LOG_MAX_SEGMENTS.get(),
+                    e -> EmergencyEscapeMod.LOGGER.warn("Combat log I/O failed", e));
+            EmergencyEscapeMod.LOGGER.info("Writing combat log to {}", directory);
+        } catch (IOException e) {
+            EmergencyEscapeMod.LOGGER.error("Could not open the combat log in {}", directory, e);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        if (writer == null) return;
+
+        writer.close();
+        if (writer.getDroppedRecords() > 0) {
+            EmergencyEscapeMod.LOGGER.warn("Combat log dropped {} records waiting for a new segment, consider a larger segmentSize",
+                    writer.getDroppedRecords());
+        }
+        writer = null;
+    }
+
+    /**
+     * @param part One of the CombatLogFormat PART_ values
+     * @param source Null for aggregated environmental damage
+     */
+    public static void hit(Player victim, byte part, float damage, DamageSource source) {
+        CombatLogWriter log = writer;
+        if (log == null) return;
+
+        begin(log, CombatLogFormat.KIND_HIT, victim).part(part).damage(damage);
+        if (source != null) {
+            // The message id is a field on the damage type, no lookup or allocation per hit
+            log.source(source.getMsgId());
+            Entity attacker = source.getEntity();
+            if (attacker != null) {
+                log.attacker(attacker.getUUID().getMostSignificantBits(), attacker.getUUID().getLeastSignificantBits());
+                // The shooter's held item for projectiles, so bows count as the weapon rather than arrows
+                if (attacker instanceof LivingEntity living) {
+                    ItemStack weapon = living.getMainHandItem();
+                    if (!weapon.isEmpty()) log.weapon(BuiltInRegistries.ITEM.getKey(weapon.getItem()));
+                }
+            }
+        }
+        log.commit();
+    }
+
+    public static void escape(Player player, boolean voluntary) {
+        CombatLogWriter log = writer;
+        if (log == null) return;
+
+        // Same order as the escape checks: parts first, otherwise it was the experience
+        byte cause = CombatLogFormat.CAUSE_EXPERIENCE;
+        if (voluntary) {
+            cause = CombatLogFormat.CAUSE_VOLUNTARY;
+        } else {
+            BodyPartHealthCapability cap = player.getCapability(BodyPartHealthCapability.CAPABILITY).orElse(null);
+            if (cap != null && cap.getHeadHealth() <= 0) {
+                cause = CombatLogFormat.CAUSE_HEAD;
+            } else if (cap != null && cap.getBodyHealth() <= 0) {
+                cause = CombatLogFormat.CAUSE_BODY;
+            }
+        }
+        begin(log, CombatLogFormat.KIND_ESCAPE, player).part(cause);
+        log.commit();
+    }
+
+    /**
+     * @param attacker The enemy player credited with the kill, null if none
+     */
+    public static void escapeDeath(Player player, Player attacker) {
+        CombatLogWriter log = writer;
+        if (log == null) return;
+
+        begin(log, CombatLogFormat.KIND_ESCAPE_DEATH, player);
+        if (attacker != null) {
+            log.attacker(attacker.getUUID().getMostSignificantBits(), attacker.getUUID().getLeastSignificantBits());
+        }
+        log.commit();
+    }
+
+    private static CombatLogWriter begin(CombatLogWriter log, byte kind, Player player) {
+        return log.begin(kind, player.level().getGameTime())
+                .victim(player.getUUID().getMostSignificantBits(), player.getUUID().getLeastSignificantBits())
+                .position(player.getX(), player.getY(), player.getZ(), player.level().dimension().location());
+    }
+}
@@ -0,0 +1,174 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.config.ModConfig;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.scores.PlayerTeam;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+
+/**
+ * Tracks which players are fighting an enemy player, fed from damage events. A hit tags both
+ * players; the victim also remembers who hit them, for kill credit when they die by escaping.
+ * Tags decay on their own: an entry only counts while its tick is within the configured tag
+ * duration, so nothing is swept per tick.
+ *
+ * An open-addressing table keyed by entity id with parallel primitive arrays, in the same layout
+ * as {@link MobBodyPartStore}. Entries are removed on logout and respawn. Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class CombatTagTracker {
+
+    private static final int EMPTY = -1;
+    private static final int NO_ATTACKER = -1;
+    private static final int INITIAL_CAPACITY = 32;
+
+    private static int[] keys = newKeys(INITIAL_CAPACITY);
+    // Last tick the player hit or was hit by an enemy player
+    private static long[] combatTick = new long[INITIAL_CAPACITY];
+    // Last enemy player to hit this player, and when
+    private static int[] lastAttacker = new int[INITIAL_CAPACITY];
+    private static long[] lastHitTick = new long[INITIAL_CAPACITY];
+    private static int size = 0;
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        clear();
+    }
+
+    /**
+     * Records a hit if the attacker is an enemy player of the victim.
+     */
+    public static void recordHit(Player victim, Entity attacker) {
+        if (!(attacker instanceof Player attackerPlayer) || attacker == victim) return;
+        if (!areEnemies(victim, attackerPlayer)) return;
+
+        long now = victim.level().getGameTime();
+        int victimSlot = getOrCreate(victim.getId());
+        combatTick[victimSlot] = now;
+        lastAttacker[victimSlot] = attacker.getId();
+        lastHitTick[victimSlot] = now;
+
+        // Slots may move on resize, look the attacker up afterwards
+        combatTick[getOrCreate(attacker.getId())] = now;
+    }
+
+    /**
+     * @return true if the player hit or was hit by an enemy player within the tag duration
+     */
+    public static boolean isTagged(Player player) {
+        int slot = findSlot(player.getId());
+        return keys[slot] != EMPTY && isRecent(player, combatTick[slot]);
+    }
+
+    /**
+     * @return The enemy player that last hit this player within the tag duration, or null
+     */
+    public static Player getLastAttacker(Player player) {
+        int slot = findSlot(player.getId());
+        if (keys[slot] == EMPTY || lastAttacker[slot] == NO_ATTACKER) return null;
+        if (!isRecent(player, lastHitTick[slot])) return null;
+
+        return player.level().getEntity(lastAttacker[slot]) instanceof Player attacker && attacker.isAlive()
+                ? attacker : null;
+    }
+
+    public static void remove(int entityId) {
+        int slot = findSlot(entityId);
+        if (keys[slot] == EMPTY) return;
+
+        // Backward-shift deletion, see MobBodyPartStore
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                combatTick[hole] = combatTick[next];
+                lastAttacker[hole] = lastAttacker[next];
+                lastHitTick[hole] = lastHitTick[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    public static void clear() {
+        keys = newKeys(INITIAL_CAPACITY);
+        combatTick = new long[INITIAL_CAPACITY];
+        lastAttacker = new int[INITIAL_CAPACITY];
+        lastHitTick = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    // Players with no team, or on different teams, are enemies
+    private static boolean areEnemies(Player a, Player b) {
+        PlayerTeam teamA = a.getTeam();
+        PlayerTeam teamB = b.getTeam();
+        return teamA == null || teamB == null || !teamA.equals(teamB);
+    }
+
+    private static boolean isRecent(Player player, long tick) {
+        return player.level().getGameTime() - tick <= ModConfig.COMBAT_TAG_DURATION.get() * 20L;
+    }
+
+    private static int getOrCreate(int entityId) {
+        int slot = findSlot(entityId);
+        if (keys[slot] != EMPTY) return slot;
+
+        keys[slot] = entityId;
+        lastAttacker[slot] = NO_ATTACKER;
+        size++;
+        if (size * 2 > keys.length) {
+            resize(keys.length * 2);
+            slot = findSlot(entityId);
+        }
+        return slot;
+    }
+
+    private static int findSlot(int entityId) {
+        int mask = keys.length - 1;
+        int slot = hash(entityId) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != entityId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static void resize(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldCombat = combatTick;
+        int[] oldAttacker = lastAttacker;
+        long[] oldHit = lastHitTick;
+        keys = newKeys(capacity);
+        combatTick = new long[capacity];
+        lastAttacker = new int[capacity];
+        lastHitTick = new long[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = findSlot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            combatTick[slot] = oldCombat[i];
+            lastAttacker[slot] = oldAttacker[i];
+            lastHitTick[slot] = oldHit[i];
+        }
+    }
+
+    private static int[] newKeys(int capacity) {
+        int[] array = new int[capacity];
+        Arrays.fill(array, EMPTY);
+        return array;
+    }
+
+    private static int hash(int id) {
+        return Mth.murmurHash3Mixer(id);
+    }
+}
@@ -0,0 +1,86 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.damagesource.DamageType;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sums periodic and environmental damage (fire, lava, poison, wither, drowning, cactus...)
+ * per player over a short window so the body part / consumption / escape pipeline
+ * runs once per window instead of once per tiny hit.
+ */
+public class DamageOverTimeAggregator {
+
+    private static class Window {
+        // Full damage, for consumption, and the damage after the route multiplier, for body parts
+        float amount;
+        float partAmount;
+        int startTick;
+        boolean open;
+    }
+
+    // Periodic damage types, data/emergencyescape/tags/damage_type/aggregated.json, extendable by datapacks
+    public static final TagKey<DamageType> AGGREGATED = TagKey.create(Registries.DAMAGE_TYPE,
+            new ResourceLocation(EmergencyEscapeMod.MODID, "aggregated"));
+
+    // One reusable window per player
+    private static final Map<UUID, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Only damage types in the aggregated tag are summed. One-shot environmental damage such
+     * as falling, the void or /kill has no entity either, but must reach the escape check on
+     * the tick it happens.
+     */
+    public static boolean isAggregated(DamageSource source) {
+        return source.is(AGGREGATED);
+    }
+
+    public static void add(Player player, float amount, float partAmount) {
+        Window window = windows.computeIfAbsent(player.getUUID(), id -> new Window());
+        if (!window.open) {
+            window.open = true;
+            window.amount = 0;
+            window.partAmount = 0;
+            window.startTick = player.tickCount;
+        }
+        window.amount += amount;
+        window.partAmount += partAmount;
+    }
+
+    /**
+     * Closes the player's window once it has been open for windowTicks.
+     *
+     * @return The summed damage of the closed window, or 0 if nothing is due yet
+     */
+    public static float poll(Player player, int windowTicks) {
+        Window window = windows.get(player.getUUID());
+        if (window == null || !window.open) {
+            return 0;
+        }
+        if (player.tickCount - window.startTick < windowTicks) {
+            return 0;
+        }
+        window.open = false;
+        return window.amount;
+    }
+
+    /**
+     * @return The summed body part damage of the window last closed by {@link #poll}
+     */
+    public static float getPolledPartDamage(Player player) {
+        Window window = windows.get(player.getUUID());
+        return window != null ? window.partAmount : 0;
+    }
+
+    public static void clear(UUID entityId) {
+        windows.remove(entityId);
+    }
+}
@@ -0,0 +1,148 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.config.ModConfig;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.damagesource.DamageType;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.server.ServerLifecycleHooks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Routes damage to body parts by damage type, from the damage.routes config list.
+ * Rules are matched against every registered damage type once, when tags load or the config
+ * changes, and compiled into arrays indexed by registry id. A hit then costs one id lookup
+ * and two array loads, however many rules or modded damage types there are.
+ *
+ * Clients connected to a remote server compile the same table from the tags the server sent
+ * and their own copy of the config, so HUD prediction routes hits the way the server does.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class DamageRouting {
+
+    public enum Route {
+        POSITIONAL,
+        HEAD,
+        BODY,
+        LEGS,
+        BYPASS
+    }
+
+    private static final Route[] ROUTES = Route.values();
+
+    private static Registry<DamageType> registry = null;
+    private static List<? extends String> compiledSource = null;
+    private static byte[] routes = new byte[0];
+    private static float[] multipliers = new float[0];
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        // In singleplayer the integrated server's registry is already in use, with the same ids
+        boolean remoteClient = event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.CLIENT_PACKET_RECEIVED
+                && ServerLifecycleHooks.getCurrentServer() == null;
+        if (event.getUpdateCause() != TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD && !remoteClient) return;
+
+        registry = event.getRegistryAccess().registryOrThrow(Registries.DAMAGE_TYPE);
+        compile();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        registry = null;
+        compiledSource = null;
+    }
+
+    /**
+     * @return The compiled index of the source's damage type, -1 before the registry is available
+     */
+    public static int indexOf(DamageSource source) {
+        Registry<DamageType> reg = registry;
+        if (reg == null) return -1;
+
+        if (ModConfig.DAMAGE_ROUTES.get() != compiledSource) {
+            compile();
+        }
+        return reg.getId(source.type());
+    }
+
+    public static Route route(int index) {
+        return index >= 0 && index < routes.length ? ROUTES[routes[index]] : Route.POSITIONAL;
+    }
+
+    public static float multiplier(int index) {
+        return index >= 0 && index < multipliers.length ? multipliers[index] : 1.0f;
+    }
+
+    private static void compile() {
+        List<? extends String> source = ModConfig.DAMAGE_ROUTES.get();
+        List<Rule> rules = new ArrayList<>();
+        for (String line : source) {
+            Rule rule = Rule.parse(line);
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+
+        int size = registry.size();
+        byte[] newRoutes = new byte[size];
+        float[] newMultipliers = new float[size];
+        Arrays.fill(newMultipliers, 1.0f);
+
+        registry.holders().forEach(holder -> {
+            int id = registry.getId(holder.value());
+            for (Rule rule : rules) {
+                if (rule.matches(holder)) {
+                    newRoutes[id] = (byte) rule.route.ordinal();
+                    newMultipliers[id] = rule.multiplier;
+                    break;
+                }
+            }
+        });
+
+        routes = newRoutes;
+        multipliers = newMultipliers;
+        compiledSource = source;
+    }
+
+    private record Rule(TagKey<DamageType> tag, ResourceLocation id, Route route, float multiplier) {
+
+        static Rule parse(String line) {
+            try {
+                String[] sides = line.split("=", 2);
+                if (sides.length != 2) {
+                    throw new IllegalArgumentException("expected <type>=<route>");
+                }
+
+                String target = sides[0].trim();
+                String[] routeParts = sides[1].trim().split("\\*", 2);
+                Route route = Route.valueOf(routeParts[0].trim().toUpperCase(Locale.ROOT));
+                float multiplier = routeParts.length > 1 ? Float.parseFloat(routeParts[1].trim()) : 1.0f;
+
+                if (target.startsWith("#")) {
+                    return new Rule(TagKey.create(Registries.DAMAGE_TYPE, new ResourceLocation(target.substring(1))),
+                            null, route, multiplier);
+                }
+                return new Rule(null, new ResourceLocation(target), route, multiplier);
+            } catch (RuntimeException e) {
+                EmergencyEscapeMod.LOGGER.warn("Ignoring damage route \"{}\": {}", line, e.getMessage());
+                return null;
+            }
+        }
+
+        boolean matches(Holder.Reference<DamageType> holder) {
+            return tag != null ? holder.is(tag) : holder.key().location().equals(id);
+        }
+    }
+}
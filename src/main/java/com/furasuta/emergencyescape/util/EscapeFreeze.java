@@ -0,0 +1,85 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.network.EscapeStatePacket;
+import com.furasuta.emergencyescape.network.OutboundQueue;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeInstance;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.common.ForgeMod;
+
+import java.util.UUID;
+
+/**
+ * Immobilises an escaping player with transient attribute modifiers (no movement, no gravity,
+ * no knockback) and a single state packet that makes the client hold still on its own.
+ * The server only corrects the position if the player somehow drifts away from the escape point.
+ */
+public class EscapeFreeze {
+
+    private static final AttributeModifier NO_MOVEMENT = new AttributeModifier(
+            UUID.fromString("ff7925c6-39ae-4ee1-b424-6df49d8126aa"),
+            "emergencyescape.escape_no_movement", -1.0, AttributeModifier.Operation.MULTIPLY_TOTAL);
+
+    private static final AttributeModifier NO_GRAVITY = new AttributeModifier(
+            UUID.fromString("bde79f6a-a0be-442e-8c31-5038755bf2c0"),
+            "emergencyescape.escape_no_gravity", -1.0, AttributeModifier.Operation.MULTIPLY_TOTAL);
+
+    private static final AttributeModifier NO_KNOCKBACK = new AttributeModifier(
+            UUID.fromString("3db3dcd8-15ea-47fa-b6bc-b02431fc4d01"),
+            "emergencyescape.escape_no_knockback", 1.0, AttributeModifier.Operation.ADDITION);
+
+    // Squared distance from the escape point tolerated before the server snaps the player back
+    private static final double MAX_DRIFT_SQR = 0.25;
+
+    /**
+     * @param startTick Level game time the escape countdown started at
+     * @param durationTicks Countdown length, the client extrapolates the rest locally
+     */
+    public static void freeze(ServerPlayer player, double x, double y, double z, long startTick, int durationTicks) {
+        addModifier(player, Attributes.MOVEMENT_SPEED, NO_MOVEMENT);
+        addModifier(player, ForgeMod.ENTITY_GRAVITY.get(), NO_GRAVITY);
+        addModifier(player, Attributes.KNOCKBACK_RESISTANCE, NO_KNOCKBACK);
+
+        // One teleport to pin the start position, then the client holds still by itself
+        player.setDeltaMovement(Vec3.ZERO);
+        player.connection.teleport(x, y, z, player.getYRot(), player.getXRot());
+
+        OutboundQueue.send(player, new EscapeStatePacket(true, x, y, z, startTick, durationTicks));
+    }
+
+    public static void release(ServerPlayer player) {
+        removeModifier(player, Attributes.MOVEMENT_SPEED, NO_MOVEMENT);
+        removeModifier(player, ForgeMod.ENTITY_GRAVITY.get(), NO_GRAVITY);
+        removeModifier(player, Attributes.KNOCKBACK_RESISTANCE, NO_KNOCKBACK);
+
+        OutboundQueue.send(player, new EscapeStatePacket(false, player.getX(), player.getY(), player.getZ(), 0, 0));
+    }
+
+    /**
+     * Snaps the player back only when they moved away from the escape point.
+     * A well-behaved client never triggers this, so frozen players cause no correction traffic.
+     */
+    public static void enforce(ServerPlayer player, double x, double y, double z) {
+        if (player.distanceToSqr(x, y, z) > MAX_DRIFT_SQR) {
+            player.setDeltaMovement(Vec3.ZERO);
+            player.connection.teleport(x, y, z, player.getYRot(), player.getXRot());
+        }
+    }
+
+    private static void addModifier(ServerPlayer player, Attribute attribute, AttributeModifier modifier) {
+        AttributeInstance instance = player.getAttribute(attribute);
+        if (instance != null && !instance.hasModifier(modifier)) {
+            instance.addTransientModifier(modifier);
+        }
+    }
+
+    private static void removeModifier(ServerPlayer player, Attribute attribute, AttributeModifier modifier) {
+        AttributeInstance instance = player.getAttribute(attribute);
+        if (instance != null) {
+            instance.removeModifier(modifier.getId());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.AddReloadListenerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads escape zones from datapacks: regions where voluntary escape is disabled, or where the
+ * escape death delay is shorter.
+ *
+ * Files live in data/<namespace>/emergencyescape/escape_zones/ and look like:
+ * <pre>
+ * {
+ *   "dimension": "minecraft:overworld",
+ *   "from": [-64, 0, -64],
+ *   "to": [63, 320, 63],
+ *   "voluntary_escape": false,
+ *   "death_delay": 2
+ * }
+ * </pre>
+ * "from"/"to" are inclusive block corners, "death_delay" is in seconds and both settings are
+ * optional. Where zones overlap, any zone disables voluntary escape and the shortest delay wins.
+ *
+ * Zones are indexed per dimension by the chunks they cover, so a lookup is one hash get and a
+ * scan of the few zones in that chunk, however many zones are loaded. Zones covering more than
+ * {@link #MAX_INDEXED_CHUNKS} chunks are kept in a per-dimension list checked on every lookup.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class EscapeZoneManager extends SimpleJsonResourceReloadListener {
+
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final int MAX_INDEXED_CHUNKS = 4096;
+    private static final int NO_DELAY = -1;
+
+    private record Zone(int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+                        boolean voluntaryEscape, int deathDelayTicks) {
+
+        boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+    }
+
+    private static class DimensionIndex {
+        final Long2ObjectOpenHashMap<Zone[]> byChunk = new Long2ObjectOpenHashMap<>();
+        final List<Zone> large = new ArrayList<>();
+    }
+
+    private static final Zone[] NO_ZONES = new Zone[0];
+
+    private static volatile Map<ResourceKey<Level>, DimensionIndex> zones = Map.of();
+
+    public EscapeZoneManager() {
+        super(GSON, EmergencyEscapeMod.MODID + "/escape_zones");
+    }
+
+    @SubscribeEvent
+    public static void onAddReloadListeners(AddReloadListenerEvent event) {
+        event.addListener(new EscapeZoneManager());
+    }
+
+    /**
+     * @return false if the entity is inside a zone that disables voluntary escape
+     */
+    public static boolean allowsVoluntaryEscape(Entity entity) {
+        DimensionIndex index = zones.get(entity.level().dimension());
+        if (index == null) return true;
+
+        BlockPos pos = entity.blockPosition();
+        for (Zone zone : index.byChunk.getOrDefault(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), NO_ZONES)) {
+            if (!zone.voluntaryEscape && zone.contains(pos.getX(), pos.getY(), pos.getZ())) return false;
+        }
+        for (Zone zone : index.large) {
+            if (!zone.voluntaryEscape && zone.contains(pos.getX(), pos.getY(), pos.getZ())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The shortest death delay of the zones the entity is in, or defaultTicks if none sets one
+     */
+    public static int getDeathDelayTicks(Entity entity, int defaultTicks) {
+        DimensionIndex index = zones.get(entity.level().dimension());
+        if (index == null) return defaultTicks;
+
+        BlockPos pos = entity.blockPosition();
+        int delay = defaultTicks;
+        for (Zone zone : index.byChunk.getOrDefault(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), NO_ZONES)) {
+            if (zone.deathDelayTicks != NO_DELAY && zone.contains(pos.getX(), pos.getY(), pos.getZ())) {
+                delay = Math.min(delay, zone.deathDelayTicks);
+            }
+        }
+        for (Zone zone : index.large) {
+            if (zone.deathDelayTicks != NO_DELAY && zone.contains(pos.getX(), pos.getY(), pos.getZ())) {
+                delay = Math.min(delay, zone.deathDelayTicks);
+            }
+        }
+        return delay;
+    }
+
+    @Override
+    protected void apply(Map<ResourceLocation, JsonElement> files, ResourceManager resourceManager, ProfilerFiller profiler) {
+        Map<ResourceKey<Level>, List<Zone>> byDimension = new HashMap<>();
+        for (Map.Entry<ResourceLocation, JsonElement> entry : files.entrySet()) {
+            try {
+                JsonObject json = GsonHelper.convertToJsonObject(entry.getValue(), "escape zone");
+                ResourceKey<Level> dimension = ResourceKey.create(Registries.DIMENSION,
+                        new ResourceLocation(GsonHelper.getAsString(json, "dimension")));
+                byDimension.computeIfAbsent(dimension, d -> new ArrayList<>()).add(parseZone(json));
+            } catch (RuntimeException e) {
+                EmergencyEscapeMod.LOGGER.error("Skipping escape zone {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+
+        Map<ResourceKey<Level>, DimensionIndex> compiled = new IdentityHashMap<>();
+        int count = 0;
+        for (Map.Entry<ResourceKey<Level>, List<Zone>> entry : byDimension.entrySet()) {
+            compiled.put(entry.getKey(), index(entry.getValue()));
+            count += entry.getValue().size();
+        }
+
+        zones = compiled;
+        EmergencyEscapeMod.LOGGER.info("Loaded {} escape zones in {} dimensions", count, compiled.size());
+    }
+
+    private static DimensionIndex index(List<Zone> dimensionZones) {
+        DimensionIndex index = new DimensionIndex();
+        Long2ObjectOpenHashMap<List<Zone>> building = new Long2ObjectOpenHashMap<>();
+        for (Zone zone : dimensionZones) {
+            int minChunkX = zone.minX >> 4, maxChunkX = zone.maxX >> 4;
+            int minChunkZ = zone.minZ >> 4, maxChunkZ = zone.maxZ >> 4;
+            long chunks = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+            if (chunks > MAX_INDEXED_CHUNKS) {
+                index.large.add(zone);
+                continue;
+            }
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                    building.computeIfAbsent(ChunkPos.asLong(cx, cz), k -> new ArrayList<>()).add(zone);
+                }
+            }
+        }
+        building.long2ObjectEntrySet().fastForEach(entry ->
+                index.byChunk.put(entry.getLongKey(), entry.getValue().toArray(NO_ZONES)));
+        index.byChunk.trim();
+        return index;
+    }
+
+    private static Zone parseZone(JsonObject json) {
+        JsonArray from = GsonHelper.getAsJsonArray(json, "from");
+        JsonArray to = GsonHelper.getAsJsonArray(json, "to");
+        int[] min = new int[3];
+        int[] max = new int[3];
+        for (int axis = 0; axis < 3; axis++) {
+            int a = GsonHelper.convertToInt(from.get(axis), "from");
+            int b = GsonHelper.convertToInt(to.get(axis), "to");
+            min[axis] = Math.min(a, b);
+            max[axis] = Math.max(a, b);
+        }
+
+        boolean voluntaryEscape = GsonHelper.getAsBoolean(json, "voluntary_escape", true);
+        int deathDelayTicks = json.has("death_delay") ? Math.max(0, GsonHelper.getAsInt(json, "death_delay")) * 20 : NO_DELAY;
+        return new Zone(min[0], min[1], min[2], max[0], max[1], max[2], voluntaryEscape, deathDelayTicks);
+    }
+}
@@ -0,0 +1,81 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.core.ExposureSampler;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Level;
+
+/**
+ * Splits explosion damage over head, body and legs by how much of each part the blast can see.
+ * The sampling itself is {@link ExposureSampler}; this class supplies the layout's categories
+ * and the block check, a short bounded march through the level.
+ */
+public class ExplosionExposure {
+
+    // HEAD, BODY, LEGS, matching the first BodyPartHitbox.BodyPart ordinals
+    public static final int PART_COUNT = 3;
+
+    // Block checks per sample ray, longer rays take coarser steps
+    private static final int MAX_MARCH_STEPS = 16;
+    private static final double MARCH_STEP = 0.5;
+
+    // Reused terrain checks, one per logical side since singleplayer runs both in one JVM
+    private static final TerrainTest SERVER_TERRAIN = new TerrainTest();
+    private static final TerrainTest CLIENT_TERRAIN = new TerrainTest();
+
+    /**
+     * Block march bound to a level for the duration of one computeShares call.
+     */
+    private static class TerrainTest implements ExposureSampler.SegmentTest {
+        private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        private BlockGetter level;
+
+        @Override
+        public boolean isBlocked(double originX, double originY, double originZ, double deltaX, double deltaY, double deltaZ) {
+            return blockedByTerrain(level, pos, originX, originY, originZ, deltaX, deltaY, deltaZ);
+        }
+    }
+
+    /**
+     * Fills out[HEAD, BODY, LEGS] with the damage share of each category, summing to 1.
+     *
+     * @return false if no sample of any part is visible from the source
+     */
+    public static boolean computeShares(Level level, BodyLayout layout,
+                                        double sourceX, double sourceY, double sourceZ,
+                                        double entityX, double entityY, double entityZ,
+                                        double height, double width, float yaw, float[] out) {
+        TerrainTest terrain = level.isClientSide() ? CLIENT_TERRAIN : SERVER_TERRAIN;
+        terrain.level = level;
+        try {
+            return ExposureSampler.computeShares(layout.getGeometry(), layout.getCategoryOrdinals(), PART_COUNT,
+                    sourceX, sourceY, sourceZ, entityX, entityY, entityZ, height, width, yaw, terrain, out);
+        } finally {
+            // Do not keep an unloaded level reachable
+            terrain.level = null;
+        }
+    }
+
+    public static BodyPartHitbox.BodyPart dominantPart(float[] shares) {
+        if (shares[0] >= shares[1] && shares[0] >= shares[2]) return BodyPartHitbox.BodyPart.HEAD;
+        return shares[1] >= shares[2] ? BodyPartHitbox.BodyPart.BODY : BodyPartHitbox.BodyPart.LEGS;
+    }
+
+    private static boolean blockedByTerrain(BlockGetter level, BlockPos.MutableBlockPos pos,
+                                            double ox, double oy, double oz, double dx, double dy, double dz) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        int steps = Math.min(MAX_MARCH_STEPS, (int) Math.ceil(length / MARCH_STEP));
+        int sourceBlockX = (int) Math.floor(ox), sourceBlockY = (int) Math.floor(oy), sourceBlockZ = (int) Math.floor(oz);
+
+        // Interior points only, the source block and the sample itself never block
+        for (int i = 1; i < steps; i++) {
+            double t = i / (double) steps;
+            pos.set(ox + dx * t, oy + dy * t, oz + dz * t);
+            if (pos.getX() == sourceBlockX && pos.getY() == sourceBlockY && pos.getZ() == sourceBlockZ) continue;
+            if (!level.getBlockState(pos).getCollisionShape(level, pos).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
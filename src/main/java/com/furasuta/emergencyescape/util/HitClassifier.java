@@ -0,0 +1,166 @@
+package com.furasuta.emergencyescape.util;
+
+import net.minecraft.tags.DamageTypeTags;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.projectile.Projectile;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+
+/**
+ * Works out which body part a damage source hit, from projectile position, attacker look vector
+ * or source position. Shared by the server-side hurt mixin and client-side HUD prediction.
+ */
+public class HitClassifier {
+
+    // Reused rewind samples, one per logical side since singleplayer runs both in one JVM
+    private static final PositionHistory.Sample SERVER_SAMPLE = new PositionHistory.Sample();
+    private static final PositionHistory.Sample CLIENT_SAMPLE = new PositionHistory.Sample();
+
+    /**
+     * @param entity The entity being hit
+     * @param source The damage source
+     * @param heightOnly Skip raycasts and classify by hit height only (cheaper)
+     * @return The classified hit, or null for damage with no position (environment, effects...)
+     */
+    @Nullable
+    public static HitPositionTracker.HitInfo classify(LivingEntity entity, DamageSource source, boolean heightOnly) {
+        Vec3 hitPosition = null;
+        Vec3 attackOrigin = null;
+        Vec3 attackDirection = null;
+        BodyPartHitbox.BodyPart bodyPart = null;
+        float[] partShares = null;
+        String hitSource = "unknown";
+
+        // Explosions first: creepers, lit TNT and fireballs have a causing or direct entity too,
+        // but their damage comes from the blast, not along anyone's look vector
+        if (source.is(DamageTypeTags.IS_EXPLOSION)) {
+            Vec3 blastOrigin = source.getSourcePosition();
+            if (blastOrigin == null && source.getDirectEntity() != null) {
+                blastOrigin = source.getDirectEntity().position();
+            }
+            if (blastOrigin != null) {
+                Vec3 entityCenter = entity.position().add(0, entity.getBbHeight() / 2, 0);
+                attackOrigin = blastOrigin;
+                attackDirection = entityCenter.subtract(blastOrigin).normalize();
+                hitPosition = entityCenter;
+                hitSource = "explosion:" + source.type().msgId();
+
+                // Default to body when the split is skipped or the blast sees nothing
+                bodyPart = BodyPartHitbox.BodyPart.BODY;
+                if (!heightOnly) {
+                    // Spread explosions over every part by how much of it the blast can see
+                    float[] shares = new float[ExplosionExposure.PART_COUNT];
+                    if (ExplosionExposure.computeShares(entity.level(), BodyLayoutManager.get(entity),
+                            blastOrigin.x, blastOrigin.y, blastOrigin.z, entity.getX(), entity.getY(), entity.getZ(),
+                            entity.getBbHeight(), entity.getBbWidth(), entity.yBodyRot, shares)) {
+                        partShares = shares;
+                        bodyPart = ExplosionExposure.dominantPart(shares);
+                        hitSource = "explosion_split:" + source.type().msgId();
+                    }
+                }
+                return new HitPositionTracker.HitInfo(hitPosition, attackOrigin, attackDirection, bodyPart, hitSource, partShares);
+            }
+        }
+
+        // Try to get hit position from projectile
+        if (source.getDirectEntity() instanceof Projectile projectile) {
+            // Use projectile's current position as hit location
+            hitPosition = projectile.position();
+            hitSource = "projectile:" + projectile.getType().toShortString();
+
+            // Calculate body part from projectile position
+            bodyPart = BodyPartHitbox.getBodyPartAtPoint(entity, hitPosition);
+
+            // If we have the shooter, use raycast for more accuracy
+            if (source.getEntity() != null && !heightOnly) {
+                attackOrigin = source.getEntity().getEyePosition();
+                attackDirection = projectile.getDeltaMovement().normalize();
+
+                // Try raycast-based detection
+                BodyPartHitbox.BodyPart raycastResult = BodyPartHitbox.getHitBodyPart(entity, attackOrigin, attackDirection);
+                if (raycastResult != BodyPartHitbox.BodyPart.NONE) {
+                    bodyPart = raycastResult;
+                    hitSource = "projectile_raycast:" + projectile.getType().toShortString();
+                }
+            }
+        }
+        // For melee attacks, use attacker's look vector for raycast
+        else if (source.getEntity() != null) {
+            var attacker = source.getEntity();
+            attackOrigin = attacker.getEyePosition();
+            attackDirection = attacker.getLookAngle();
+            hitSource = "melee:" + attacker.getType().toShortString();
+
+            // Victim as the attacker saw it, rewound by the attacker's latency
+            PositionHistory.Sample victim = PositionHistory.rewindFor(entity, attacker,
+                    entity.level().isClientSide() ? CLIENT_SAMPLE : SERVER_SAMPLE);
+            Vec3 victimCenter = new Vec3(victim.x, victim.y + victim.height / 2, victim.z);
+            BodyLayout layout = BodyLayoutManager.get(entity.getType(), victim.pose);
+            if (victim.rewoundTicks > 0) {
+                hitSource = "melee_lagcomp(-" + victim.rewoundTicks + "t):" + attacker.getType().toShortString();
+            }
+
+            if (heightOnly) {
+                // Attacker eye height clamped to the entity's bounds
+                double hitY = Math.max(victim.y, Math.min(attackOrigin.y, victim.y + victim.height));
+                bodyPart = layout.getCategory(layout.partAtHeight((hitY - victim.y) / victim.height));
+                hitPosition = new Vec3(victim.x, hitY, victim.z);
+                hitSource = "melee_height:" + attacker.getType().toShortString();
+            } else {
+                // Perform raycast to find which body part was hit
+                bodyPart = layout.getCategory(layout.rayHit(victim.x, victim.y, victim.z, victim.height, victim.width, victim.yaw,
+                        attackOrigin.x, attackOrigin.y, attackOrigin.z,
+                        attackDirection.x, attackDirection.y, attackDirection.z));
+            }
+
+            if (bodyPart == BodyPartHitbox.BodyPart.NONE) {
+                // Fallback: estimate based on distance and height
+                double distance = attackOrigin.distanceTo(victimCenter);
+                hitPosition = attackOrigin.add(attackDirection.scale(Math.min(distance, 5)));
+
+                // Clamp to entity bounds
+                double minY = victim.y;
+                double maxY = victim.y + victim.height;
+                if (hitPosition.y < minY) {
+                    hitPosition = new Vec3(hitPosition.x, minY, hitPosition.z);
+                } else if (hitPosition.y > maxY) {
+                    hitPosition = new Vec3(hitPosition.x, maxY, hitPosition.z);
+                }
+
+                bodyPart = layout.getCategory(layout.partAt(victim.x, victim.y, victim.z, victim.height, victim.width, victim.yaw,
+                        hitPosition.x, hitPosition.y, hitPosition.z));
+                hitSource = "melee_fallback:" + attacker.getType().toShortString();
+            } else if (!heightOnly) {
+                // Calculate approximate hit position from raycast
+                hitPosition = attackOrigin.add(attackDirection.scale(attackOrigin.distanceTo(victimCenter)));
+            }
+        }
+        // For damage without a direct source that still has a position
+        else if (source.getSourcePosition() != null) {
+            Vec3 sourcePos = source.getSourcePosition();
+            hitSource = "source_position:" + source.type().msgId();
+
+            // Direction from source to entity center
+            Vec3 entityCenter = entity.position().add(0, entity.getBbHeight() / 2, 0);
+            attackDirection = entityCenter.subtract(sourcePos).normalize();
+            attackOrigin = sourcePos;
+
+            // Raycast from source to entity
+            bodyPart = heightOnly ? BodyPartHitbox.BodyPart.NONE
+                    : BodyPartHitbox.getHitBodyPart(entity, attackOrigin, attackDirection);
+            if (bodyPart == BodyPartHitbox.BodyPart.NONE) {
+                bodyPart = BodyPartHitbox.BodyPart.BODY;
+                hitSource = "source_position_default:" + source.type().msgId();
+            }
+
+            hitPosition = entityCenter;
+        }
+
+        if (bodyPart == null) {
+            return null;
+        }
+        return new HitPositionTracker.HitInfo(hitPosition, attackOrigin, attackDirection, bodyPart, hitSource, partShares);
+    }
+}
@@ -1,5 +1,6 @@
 package com.furasuta.emergencyescape.util;
 
+import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.phys.Vec3;
 
 import java.util.Map;
@@ -7,8 +8,10 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Tracks the last hit position and body part for entities.
+ * Tracks pending hit positions and body parts for entities.
  * Used to get accurate damage location from Mixin.
+ * Each entity keeps a small bounded queue, so several hits landing in the same tick
+ * (multishot, volleys, sweeps) are each matched to their own damage event.
  */
 public class HitPositionTracker {
 
@@ -18,45 +21,125 @@ public class HitPositionTracker {
         public final Vec3 attackDirection;
         public final BodyPartHitbox.BodyPart bodyPart;
         public final String source;
+        // Damage share per body part (indexed by ordinal) for hits spread over several parts, else null
+        public final float[] partShares;
 
         public HitInfo(Vec3 hitPosition, Vec3 attackOrigin, Vec3 attackDirection,
                        BodyPartHitbox.BodyPart bodyPart, String source) {
+            this(hitPosition, attackOrigin, attackDirection, bodyPart, source, null);
+        }
+
+        public HitInfo(Vec3 hitPosition, Vec3 attackOrigin, Vec3 attackDirection,
+                       BodyPartHitbox.BodyPart bodyPart, String source, float[] partShares) {
             this.hitPosition = hitPosition;
             this.attackOrigin = attackOrigin;
             this.attackDirection = attackDirection;
             this.bodyPart = bodyPart;
             this.source = source;
+            this.partShares = partShares;
         }
     }
 
-    // Map of entity UUID to last hit info
-    private static final Map<UUID, HitInfo> lastHitInfo = new ConcurrentHashMap<>();
-
-    // Map of entity UUID to last damage timestamp (to expire old data)
-    private static final Map<UUID, Long> hitTimestamps = new ConcurrentHashMap<>();
+    // Pending hits kept per entity, the oldest is dropped when a volley is larger
+    public static final int QUEUE_CAPACITY = 8;
 
     // Hit data expires after 100ms
     private static final long EXPIRY_TIME_MS = 100;
 
+    /**
+     * Fixed-size FIFO of hits that have been classified but not yet matched to damage.
+     * Hits are keyed by the DamageSource instance passed to hurt(), which is the same
+     * instance the damage event later sees.
+     */
+    private static class PendingHits {
+        private final DamageSource[] sources = new DamageSource[QUEUE_CAPACITY];
+        private final HitInfo[] infos = new HitInfo[QUEUE_CAPACITY];
+        private final long[] timestamps = new long[QUEUE_CAPACITY];
+        private int head = 0; // Index of the oldest entry
+        private int size = 0;
+
+        synchronized void push(DamageSource source, HitInfo info, long now) {
+            if (size == QUEUE_CAPACITY) {
+                removeOldest();
+            }
+            int index = (head + size) % QUEUE_CAPACITY;
+            sources[index] = source;
+            infos[index] = info;
+            timestamps[index] = now;
+            size++;
+        }
+
+        /**
+         * Returns the oldest live hit for the given source. Entries ahead of it belong to
+         * hits that never turned into damage (cancelled, blocked, invulnerable) and are dropped.
+         * A null source matches the newest live entry.
+         */
+        synchronized HitInfo poll(DamageSource source, long now) {
+            while (size > 0 && now - timestamps[head] >= EXPIRY_TIME_MS) {
+                removeOldest();
+            }
+            if (size == 0) return null;
+
+            if (source == null) {
+                return infos[(head + size - 1) % QUEUE_CAPACITY];
+            }
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % QUEUE_CAPACITY;
+                if (sources[index] == source) {
+                    HitInfo info = infos[index];
+                    for (int j = 0; j <= i; j++) {
+                        removeOldest();
+                    }
+                    return info;
+                }
+            }
+            return null;
+        }
+
+        synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void removeOldest() {
+            sources[head] = null;
+            infos[head] = null;
+            head = (head + 1) % QUEUE_CAPACITY;
+            size--;
+        }
+    }
+
+    // Map of entity UUID to pending hits
+    private static final Map<UUID, PendingHits> pendingHits = new ConcurrentHashMap<>();
+
+    public static void pushHit(UUID entityId, DamageSource source, HitInfo info) {
+        pendingHits.computeIfAbsent(entityId, id -> new PendingHits()).push(source, info, System.currentTimeMillis());
+    }
+
+    /**
+     * Takes the hit recorded for this damage source, or null if it was not classified or expired.
+     */
+    public static HitInfo pollHit(UUID entityId, DamageSource source) {
+        PendingHits hits = pendingHits.get(entityId);
+        if (hits == null) return null;
+
+        HitInfo info = hits.poll(source, System.currentTimeMillis());
+        if (hits.isEmpty()) {
+            pendingHits.remove(entityId, hits);
+        }
+        return info;
+    }
+
     public static void setLastHitInfo(UUID entityId, HitInfo info) {
-        lastHitInfo.put(entityId, info);
-        hitTimestamps.put(entityId, System.currentTimeMillis());
+        pushHit(entityId, null, info);
     }
 
     public static HitInfo getLastHitInfo(UUID entityId) {
-        Long timestamp = hitTimestamps.get(entityId);
-        if (timestamp != null && System.currentTimeMillis() - timestamp < EXPIRY_TIME_MS) {
-            return lastHitInfo.get(entityId);
-        }
-        // Clear expired data
-        lastHitInfo.remove(entityId);
-        hitTimestamps.remove(entityId);
-        return null;
+        PendingHits hits = pendingHits.get(entityId);
+        return hits != null ? hits.poll(null, System.currentTimeMillis()) : null;
     }
 
     public static void clearHitInfo(UUID entityId) {
-        lastHitInfo.remove(entityId);
-        hitTimestamps.remove(entityId);
+        pendingHits.remove(entityId);
     }
 
     // Legacy methods for compatibility
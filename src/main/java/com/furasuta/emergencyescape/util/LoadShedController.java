@@ -0,0 +1,171 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.config.ModConfig;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Watches the server tick time and steps the mod's own work down when the server falls behind:
+ * longer sync intervals, height-only hit classification, smaller effect broadcasts and
+ * deferred non-critical work. Levels change with hysteresis and can be pinned by command.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class LoadShedController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadShedController.class);
+
+    public enum Level {
+        //          sync  effect range  non-critical  height-only  debug
+        NORMAL     (5,    64,           1,            false,       true),
+        REDUCED    (10,   48,           1,            false,       true),
+        DEGRADED   (20,   32,           2,            true,        false),
+        CRITICAL   (40,   16,           4,            true,        false);
+
+        public final int syncInterval;
+        public final double effectRange;
+        public final int nonCriticalInterval;
+        public final boolean heightOnlyHits;
+        public final boolean debugOutput;
+
+        Level(int syncInterval, double effectRange, int nonCriticalInterval, boolean heightOnlyHits, boolean debugOutput) {
+            this.syncInterval = syncInterval;
+            this.effectRange = effectRange;
+            this.nonCriticalInterval = nonCriticalInterval;
+            this.heightOnlyHits = heightOnlyHits;
+            this.debugOutput = debugOutput;
+        }
+    }
+
+    private static final Level[] LEVELS = Level.values();
+
+    // Smoothing factor of the tick time moving average (~1 second of history)
+    private static final double AVERAGE_ALPHA = 0.05;
+
+    // Minimum ticks spent at a level before escalating / recovering
+    private static final int ESCALATE_DWELL_TICKS = 20;
+    private static final int RECOVER_DWELL_TICKS = 200;
+
+    private static long tickStartNanos;
+    private static double averageMspt;
+    private static Level level = Level.NORMAL;
+    private static Level forcedLevel = null;
+    private static int ticksAtLevel;
+    private static final long[] ticksPerLevel = new long[LEVELS.length];
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            tickStartNanos = System.nanoTime();
+            return;
+        }
+
+        double mspt = (System.nanoTime() - tickStartNanos) / 1_000_000.0;
+        averageMspt += (mspt - averageMspt) * AVERAGE_ALPHA;
+        ticksAtLevel++;
+        ticksPerLevel[level.ordinal()]++;
+
+        if (forcedLevel != null) {
+            setLevel(forcedLevel);
+        } else if (!ModConfig.LOAD_SHEDDING_ENABLED.get()) {
+            setLevel(Level.NORMAL);
+        } else {
+            updateLevel();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        level = Level.NORMAL;
+        forcedLevel = null;
+        averageMspt = 0;
+        ticksAtLevel = 0;
+        Arrays.fill(ticksPerLevel, 0);
+    }
+
+    private static void updateLevel() {
+        int current = level.ordinal();
+
+        if (current < LEVELS.length - 1 && ticksAtLevel >= ESCALATE_DWELL_TICKS
+                && averageMspt >= enterThreshold(current + 1)) {
+            setLevel(LEVELS[current + 1]);
+        } else if (current > 0 && ticksAtLevel >= RECOVER_DWELL_TICKS
+                && averageMspt < enterThreshold(current) - ModConfig.LOAD_SHEDDING_HYSTERESIS_MSPT.get()) {
+            setLevel(LEVELS[current - 1]);
+        }
+    }
+
+    private static double enterThreshold(int ordinal) {
+        return switch (LEVELS[ordinal]) {
+            case REDUCED -> ModConfig.LOAD_SHEDDING_REDUCED_MSPT.get();
+            case DEGRADED -> ModConfig.LOAD_SHEDDING_DEGRADED_MSPT.get();
+            case CRITICAL -> ModConfig.LOAD_SHEDDING_CRITICAL_MSPT.get();
+            default -> 0;
+        };
+    }
+
+    private static void setLevel(Level newLevel) {
+        if (newLevel == level) return;
+        LOGGER.info("Load shedding level {} -> {} (average tick {} ms)",
+                level, newLevel, String.format("%.1f", averageMspt));
+        level = newLevel;
+        ticksAtLevel = 0;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Pins the level until {@link #resume()} is called.
+     */
+    public static void force(Level newLevel) {
+        forcedLevel = newLevel;
+        setLevel(newLevel);
+    }
+
+    public static void resume() {
+        forcedLevel = null;
+    }
+
+    public static boolean isForced() {
+        return forcedLevel != null;
+    }
+
+    public static double getAverageMspt() {
+        return averageMspt;
+    }
+
+    public static long getTicksAtLevel(Level l) {
+        return ticksPerLevel[l.ordinal()];
+    }
+
+    public static int getSyncInterval() {
+        return level.syncInterval;
+    }
+
+    public static double getEffectRange() {
+        return level.effectRange;
+    }
+
+    public static boolean useHeightOnlyHits() {
+        return level.heightOnlyHits;
+    }
+
+    public static boolean allowDebugOutput() {
+        return level.debugOutput;
+    }
+
+    /**
+     * Whether non-critical per-player work should run on this tick.
+     */
+    public static boolean runNonCritical(int tickCount) {
+        return tickCount % level.nonCriticalInterval == 0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.config.ModConfig;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.EntityType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Head and body health for mobs that opted in through the config, kept outside the capability
+ * system so tracked mobs cost a map slot instead of three capability objects.
+ *
+ * An open-addressing table keyed by entity id with parallel primitive arrays: 12 bytes per
+ * slot, about 24 per tracked mob at the maximum load factor. Entries are created on the first
+ * positional hit and removed when the mob leaves the level. Server thread only.
+ */
+public class MobBodyPartStore {
+
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static int[] keys = newKeys(INITIAL_CAPACITY);
+    private static float[] headHealth = new float[INITIAL_CAPACITY];
+    private static float[] bodyHealth = new float[INITIAL_CAPACITY];
+    private static int size = 0;
+
+    // Tracked types, rebuilt when the config list changes
+    private static List<? extends String> trackedSource = null;
+    private static Set<EntityType<?>> trackedTypes = Set.of();
+
+    public static boolean isTracked(EntityType<?> type) {
+        List<? extends String> configured = ModConfig.MOB_BODY_PART_ENTITY_TYPES.get();
+        if (configured != trackedSource) {
+            Set<EntityType<?>> types = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String id : configured) {
+                BuiltInRegistries.ENTITY_TYPE.getOptional(new ResourceLocation(id)).ifPresent(types::add);
+            }
+            trackedTypes = types;
+            trackedSource = configured;
+        }
+        return trackedTypes.contains(type);
+    }
+
+    /**
+     * Applies damage to the mob's head and body, creating its entry at full health if needed.
+     *
+     * @return true if either part is now depleted
+     */
+    public static boolean damage(int entityId, float maxHealth, float headDamage, float bodyDamage) {
+        int slot = findSlot(entityId);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = entityId;
+            headHealth[slot] = (float) (maxHealth * ModConfig.MOB_HEAD_HEALTH_RATIO.get());
+            bodyHealth[slot] = (float) (maxHealth * ModConfig.MOB_BODY_HEALTH_RATIO.get());
+            size++;
+        }
+
+        headHealth[slot] = Math.max(0, headHealth[slot] - headDamage);
+        bodyHealth[slot] = Math.max(0, bodyHealth[slot] - bodyDamage);
+        boolean depleted = headHealth[slot] <= 0 || bodyHealth[slot] <= 0;
+
+        if (size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return depleted;
+    }
+
+    public static void remove(int entityId) {
+        int slot = findSlot(entityId);
+        if (keys[slot] == EMPTY) return;
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            // Move the entry back if the hole lies between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                headHealth[hole] = headHealth[next];
+                bodyHealth[hole] = bodyHealth[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    public static void clear() {
+        keys = newKeys(INITIAL_CAPACITY);
+        headHealth = new float[INITIAL_CAPACITY];
+        bodyHealth = new float[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    private static int findSlot(int entityId) {
+        int mask = keys.length - 1;
+        int slot = hash(entityId) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != entityId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static void resize(int capacity) {
+        int[] oldKeys = keys;
+        float[] oldHead = headHealth;
+        float[] oldBody = bodyHealth;
+        keys = newKeys(capacity);
+        headHealth = new float[capacity];
+        bodyHealth = new float[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = findSlot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            headHealth[slot] = oldHead[i];
+            bodyHealth[slot] = oldBody[i];
+        }
+    }
+
+    private static int[] newKeys(int capacity) {
+        int[] array = new int[capacity];
+        Arrays.fill(array, EMPTY);
+        return array;
+    }
+
+    // Entity ids are sequential, spread them over the table
+    private static int hash(int id) {
+        return Mth.murmurHash3Mixer(id);
+    }
+}
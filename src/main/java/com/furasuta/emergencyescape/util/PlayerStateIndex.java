@@ -0,0 +1,170 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.api.CombatStateQuery;
+import com.furasuta.emergencyescape.capability.BodyPartHealthCapability;
+import com.furasuta.emergencyescape.capability.EmergencyEscapeCapability;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Backs the public {@link CombatStateQuery} with an entity id index of online players, kept up
+ * to date on join, respawn, dimension change and logout, and a UUID to entity id map for
+ * {@link #resolve}. Lookups are one primitive map get plus the cached capability optionals,
+ * so polling every player each tick allocates nothing.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class PlayerStateIndex implements CombatStateQuery {
+
+    public static final PlayerStateIndex INSTANCE = new PlayerStateIndex();
+
+    private static final Int2ObjectOpenHashMap<ServerPlayer> byId = new Int2ObjectOpenHashMap<>();
+    private static final Object2IntOpenHashMap<UUID> idByUuid = new Object2IntOpenHashMap<>();
+    // Same players in a list, for bulk queries without an iterator
+    private static final List<ServerPlayer> players = new ArrayList<>();
+
+    static {
+        idByUuid.defaultReturnValue(NOT_FOUND);
+    }
+
+    private PlayerStateIndex() {
+    }
+
+    @SubscribeEvent
+    public static void onEntityJoinLevel(EntityJoinLevelEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+
+        // Respawning replaces the player object but keeps the entity id
+        ServerPlayer previous = byId.put(player.getId(), player);
+        idByUuid.put(player.getUUID(), player.getId());
+        if (previous == null) {
+            players.add(player);
+        } else if (previous != player) {
+            players.set(players.indexOf(previous), player);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        ServerPlayer removed = byId.remove(event.getEntity().getId());
+        if (removed != null) {
+            players.remove(removed);
+            idByUuid.removeInt(removed.getUUID());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        byId.clear();
+        idByUuid.clear();
+        players.clear();
+    }
+
+    @Override
+    public int resolve(UUID playerId) {
+        return idByUuid.getInt(playerId);
+    }
+
+    @Override
+    public boolean isEnrolled(int entityId) {
+        return bodyParts(entityId) != null;
+    }
+
+    @Override
+    public float getHeadHealth(int entityId) {
+        BodyPartHealthCapability cap = bodyParts(entityId);
+        return cap != null ? cap.getHeadHealth() : Float.NaN;
+    }
+
+    @Override
+    public float getBodyHealth(int entityId) {
+        BodyPartHealthCapability cap = bodyParts(entityId);
+        return cap != null ? cap.getBodyHealth() : Float.NaN;
+    }
+
+    @Override
+    public int getMaxHeadHealth(int entityId) {
+        BodyPartHealthCapability cap = bodyParts(entityId);
+        return cap != null ? cap.getMaxHeadHealth() : 0;
+    }
+
+    @Override
+    public int getMaxBodyHealth(int entityId) {
+        BodyPartHealthCapability cap = bodyParts(entityId);
+        return cap != null ? cap.getMaxBodyHealth() : 0;
+    }
+
+    @Override
+    public boolean isEscaping(int entityId) {
+        ServerPlayer player = byId.get(entityId);
+        EmergencyEscapeCapability cap = player != null ? escape(player) : null;
+        return cap != null && cap.isEscaping();
+    }
+
+    @Override
+    public int getEscapeTicksRemaining(int entityId) {
+        ServerPlayer player = byId.get(entityId);
+        EmergencyEscapeCapability cap = player != null ? escape(player) : null;
+        return cap != null && cap.isEscaping() ? cap.getEscapeTicksRemaining() : 0;
+    }
+
+    @Override
+    public int getEnrolledCount() {
+        int count = 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (bodyParts(players.get(i)) != null) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int fillEnrolled(int[] entityIds, float[] headHealth, float[] bodyHealth, int[] flags) {
+        int limit = Integer.MAX_VALUE;
+        if (entityIds != null) limit = Math.min(limit, entityIds.length);
+        if (headHealth != null) limit = Math.min(limit, headHealth.length);
+        if (bodyHealth != null) limit = Math.min(limit, bodyHealth.length);
+        if (flags != null) limit = Math.min(limit, flags.length);
+
+        int written = 0;
+        for (int i = 0; i < players.size() && written < limit; i++) {
+            ServerPlayer player = players.get(i);
+            BodyPartHealthCapability cap = bodyParts(player);
+            if (cap == null) continue;
+
+            if (entityIds != null) entityIds[written] = player.getId();
+            if (headHealth != null) headHealth[written] = cap.getHeadHealth();
+            if (bodyHealth != null) bodyHealth[written] = cap.getBodyHealth();
+            if (flags != null) {
+                EmergencyEscapeCapability escapeCap = escape(player);
+                flags[written] = escapeCap != null && escapeCap.isEscaping() ? FLAG_ESCAPING : 0;
+            }
+            written++;
+        }
+        return written;
+    }
+
+    private static BodyPartHealthCapability bodyParts(int entityId) {
+        ServerPlayer player = byId.get(entityId);
+        return player != null ? bodyParts(player) : null;
+    }
+
+    // Null unless the player is enrolled
+    private static BodyPartHealthCapability bodyParts(ServerPlayer player) {
+        BodyPartHealthCapability cap = player.getCapability(BodyPartHealthCapability.CAPABILITY).orElse(null);
+        return cap != null && cap.isActive() ? cap : null;
+    }
+
+    private static EmergencyEscapeCapability escape(ServerPlayer player) {
+        return player.getCapability(EmergencyEscapeCapability.CAPABILITY).orElse(null);
+    }
+}
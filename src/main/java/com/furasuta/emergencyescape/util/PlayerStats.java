@@ -0,0 +1,331 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.config.ModConfig;
+import com.furasuta.emergencyescape.core.log.CombatLogFormat;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-term per-player combat statistics, kept in memory and saved to
+ * world/emergencyescape/player_stats.dat.
+ *
+ * Counters live in one dense long array, a row of {@link Stat} values per player, found
+ * through an open-addressing index keyed by UUID. Counting a stat is an index probe and an
+ * increment. Every flush interval the server thread copies the rows, which is a plain array
+ * copy, and a background thread writes the copy to a temporary file and renames it over the
+ * old one, so a crash mid-write leaves the previous file intact.
+ *
+ * The whole file is loaded on server start and entries are never removed, so queries never
+ * touch disk. Server thread only, apart from the background write of a copy.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class PlayerStats {
+
+    /**
+     * Stored by ordinal, only ever append new values.
+     */
+    public enum Stat {
+        HEAD_HITS,
+        BODY_HITS,
+        LEGS_HITS,
+        // Explosions spread over several parts
+        SPLIT_HITS,
+        FORCED_ESCAPES,
+        VOLUNTARY_ESCAPES,
+        EXPERIENCE_DRAINED,
+        ESCAPE_DEATHS
+    }
+
+    private static final Stat[] STATS = Stat.values();
+    private static final int STAT_COUNT = STATS.length;
+
+    private static final int MAGIC = 0x53504545; // "EEPS"
+    private static final int VERSION = 1;
+    private static final String FILE_NAME = "player_stats.dat";
+
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Open-addressing index from UUID to row
+    private static int[] index = newIndex(INITIAL_CAPACITY);
+    // Dense rows
+    private static long[] uuidMost = new long[INITIAL_CAPACITY];
+    private static long[] uuidLeast = new long[INITIAL_CAPACITY];
+    private static long[] counters = new long[INITIAL_CAPACITY * STAT_COUNT];
+    private static int size = 0;
+
+    private static MinecraftServer server = null;
+    private static Path file = null;
+    private static ExecutorService writer = null;
+    private static boolean dirty = false;
+    private static int ticksSinceFlush = 0;
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        clear();
+        server = event.getServer();
+        file = event.getServer().getWorldPath(LevelResource.ROOT).resolve(EmergencyEscapeMod.MODID).resolve(FILE_NAME);
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EmergencyEscape Player Stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        load(file);
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || writer == null) return;
+
+        if (++ticksSinceFlush >= ModConfig.PLAYER_STATS_FLUSH_INTERVAL.get() * 20) {
+            ticksSinceFlush = 0;
+            flush();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        if (writer == null) return;
+
+        flush();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                EmergencyEscapeMod.LOGGER.warn("Timed out saving player stats to {}", file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        server = null;
+        file = null;
+        clear();
+    }
+
+    public static void add(Player player, Stat stat, long amount) {
+        if (writer == null) return;
+
+        int row = getOrCreate(player.getUUID().getMostSignificantBits(), player.getUUID().getLeastSignificantBits());
+        counters[row * STAT_COUNT + stat.ordinal()] += amount;
+        dirty = true;
+    }
+
+    public static void increment(Player player, Stat stat) {
+        add(player, stat, 1);
+    }
+
+    /**
+     * @param part One of the CombatLogFormat PART_ values
+     */
+    public static void recordHit(Player player, byte part) {
+        increment(player, switch (part) {
+            case CombatLogFormat.PART_HEAD -> Stat.HEAD_HITS;
+            case CombatLogFormat.PART_BODY -> Stat.BODY_HITS;
+            case CombatLogFormat.PART_LEGS -> Stat.LEGS_HITS;
+            default -> Stat.SPLIT_HITS;
+        });
+    }
+
+    /**
+     * Copies the player's counters, indexed by {@link Stat} ordinal.
+     *
+     * @return false if nothing has been recorded for the player
+     */
+    public static boolean get(UUID uuid, long[] into) {
+        int slot = findSlot(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (index[slot] == EMPTY) return false;
+
+        System.arraycopy(counters, index[slot] * STAT_COUNT, into, 0, STAT_COUNT);
+        return true;
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    // Hands a copy of the rows to the background thread, if anything changed
+    private static void flush() {
+        if (!dirty || file == null) return;
+        dirty = false;
+
+        int count = size;
+        long[] most = Arrays.copyOf(uuidMost, count);
+        long[] least = Arrays.copyOf(uuidLeast, count);
+        long[] values = Arrays.copyOf(counters, count * STAT_COUNT);
+        Path target = file;
+        MinecraftServer owner = server;
+        writer.execute(() -> {
+            try {
+                write(target, count, most, least, values);
+            } catch (IOException e) {
+                EmergencyEscapeMod.LOGGER.error("Failed to save player stats to {}", target, e);
+                // Retry at the next flush even if nothing else changes
+                owner.execute(() -> {
+                    if (file == target) dirty = true;
+                });
+            }
+        });
+    }
+
+    private static void write(Path target, int count, long[] most, long[] least, long[] values) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(FILE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(STAT_COUNT);
+            out.writeInt(count);
+            for (int row = 0; row < count; row++) {
+                out.writeLong(most[row]);
+                out.writeLong(least[row]);
+                for (int stat = 0; stat < STAT_COUNT; stat++) {
+                    writeVarLong(out, values[row * STAT_COUNT + stat]);
+                }
+            }
+            out.flush();
+            // On disk before the rename makes it the live file
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void load(Path source) {
+        if (!Files.exists(source)) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("not a player stats file");
+            }
+            // Files from older versions may have fewer stats
+            int statCount = in.readInt();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int row = getOrCreate(in.readLong(), in.readLong());
+                for (int stat = 0; stat < statCount; stat++) {
+                    long value = readVarLong(in);
+                    if (stat < STAT_COUNT) counters[row * STAT_COUNT + stat] = value;
+                }
+            }
+            EmergencyEscapeMod.LOGGER.info("Loaded combat stats for {} players", size);
+        } catch (IOException e) {
+            // Keep the broken file for inspection rather than overwriting it on the next flush
+            Path aside = source.resolveSibling(FILE_NAME + ".corrupt");
+            EmergencyEscapeMod.LOGGER.error("Could not read player stats from {}, moving it to {}", source, aside, e);
+            clear();
+            try {
+                Files.move(source, aside, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveError) {
+                EmergencyEscapeMod.LOGGER.error("Could not move {} aside", source, moveError);
+            }
+        }
+    }
+
+    private static int getOrCreate(long most, long least) {
+        int slot = findSlot(most, least);
+        if (index[slot] != EMPTY) return index[slot];
+
+        if (size == uuidMost.length) {
+            int capacity = size * 2;
+            uuidMost = Arrays.copyOf(uuidMost, capacity);
+            uuidLeast = Arrays.copyOf(uuidLeast, capacity);
+            counters = Arrays.copyOf(counters, capacity * STAT_COUNT);
+        }
+        int row = size++;
+        uuidMost[row] = most;
+        uuidLeast[row] = least;
+        index[slot] = row;
+
+        if (size * 2 > index.length) {
+            rebuildIndex(index.length * 2);
+        }
+        return row;
+    }
+
+    private static int findSlot(long most, long least) {
+        int mask = index.length - 1;
+        int slot = hash(most, least) & mask;
+        while (index[slot] != EMPTY && (uuidMost[index[slot]] != most || uuidLeast[index[slot]] != least)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static void rebuildIndex(int capacity) {
+        index = newIndex(capacity);
+        for (int row = 0; row < size; row++) {
+            index[findSlot(uuidMost[row], uuidLeast[row])] = row;
+        }
+    }
+
+    private static void clear() {
+        index = newIndex(INITIAL_CAPACITY);
+        uuidMost = new long[INITIAL_CAPACITY];
+        uuidLeast = new long[INITIAL_CAPACITY];
+        counters = new long[INITIAL_CAPACITY * STAT_COUNT];
+        size = 0;
+        dirty = false;
+        ticksSinceFlush = 0;
+    }
+
+    private static int[] newIndex(int capacity) {
+        int[] array = new int[capacity];
+        Arrays.fill(array, EMPTY);
+        return array;
+    }
+
+    // UUIDs are already random, folding the halves is enough
+    private static int hash(long most, long least) {
+        long h = most ^ least;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // Most counters are small, seven bits per byte keeps the file compact
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("malformed counter");
+    }
+}
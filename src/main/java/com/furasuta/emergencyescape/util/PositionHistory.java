@@ -0,0 +1,81 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.config.ModConfig;
+import com.furasuta.emergencyescape.core.RewindHistory;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short per-player {@link RewindHistory} of positions, hitbox sizes, body rotations and poses,
+ * used to rewind a victim to where a lagging attacker saw them when the hit is classified.
+ */
+public class PositionHistory {
+
+    /**
+     * Rewind output that can also be filled from an entity's current state.
+     */
+    public static class Sample extends RewindHistory.Sample {
+        public void setFrom(Entity entity) {
+            x = entity.getX();
+            y = entity.getY();
+            z = entity.getZ();
+            height = entity.getBbHeight();
+            width = entity.getBbWidth();
+            yaw = entity instanceof LivingEntity living ? living.yBodyRot : entity.getYRot();
+            pose = entity.getPose().ordinal();
+            rewoundTicks = 0;
+        }
+    }
+
+    private static final Map<UUID, RewindHistory> histories = new ConcurrentHashMap<>();
+
+    public static void record(Player player) {
+        RewindHistory history = histories.computeIfAbsent(player.getUUID(), id -> new RewindHistory());
+        history.record(player.level().getGameTime(), player.getX(), player.getY(), player.getZ(),
+                player.getBbHeight(), player.getBbWidth(), player.yBodyRot, player.getPose().ordinal());
+    }
+
+    // How far behind the server the client draws other players: it interpolates toward each
+    // position update over a few ticks, which averages out to about one tick
+    private static final int INTERPOLATION_MS = 50;
+
+    /**
+     * Where the attacker saw the victim when they swung. The swing left the attacker's client
+     * one-way latency ago, taken as half the keep-alive round trip, and the client was drawing
+     * the victim one interpolation delay behind the server then. The victim is rewound by the
+     * sum of the two, capped by the config. Falls back to the current position for non-player
+     * attackers, when disabled, or without history.
+     *
+     * @param sample Caller-owned sample that receives the result
+     */
+    public static Sample rewindFor(LivingEntity victim, Entity attacker, Sample sample) {
+        sample.setFrom(victim);
+
+        int maxMs = ModConfig.LAG_COMPENSATION_MAX_MS.get();
+        if (maxMs <= 0 || !(attacker instanceof ServerPlayer serverAttacker) || attacker == victim) {
+            return sample;
+        }
+
+        int seenMs = serverAttacker.connection.latency() / 2 + INTERPOLATION_MS;
+        int ticksBack = Math.round(Math.min(seenMs, maxMs) / 50f);
+        if (ticksBack <= 0) {
+            return sample;
+        }
+
+        RewindHistory history = histories.get(victim.getUUID());
+        if (history != null) {
+            history.rewind(victim.level().getGameTime() - ticksBack, sample);
+        }
+        return sample;
+    }
+
+    public static void clear(UUID entityId) {
+        histories.remove(entityId);
+    }
+}
@@ -0,0 +1,64 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.capability.DamageConsumptionCapability;
+import com.furasuta.emergencyescape.config.ModConfig;
+import com.furasuta.emergencyescape.core.SeverityTable;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the damage of a hit to experience consumption through severity tiers from the config,
+ * compiled on config load into a {@link SeverityTable}. A hit costs one binary search and no
+ * config reads. Without configured tiers, the legacy large/small damage settings are compiled
+ * into two tiers.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID, bus = Mod.EventBusSubscriber.Bus.MOD)
+public class SeverityCurve {
+
+    private static volatile SeverityTable table = SeverityTable.EMPTY;
+
+    @SubscribeEvent
+    public static void onConfigLoad(ModConfigEvent event) {
+        if (event.getConfig().getSpec() == ModConfig.SPEC) {
+            compile();
+        }
+    }
+
+    /**
+     * Queues the instant and sustained consumption for a hit of this damage.
+     */
+    public static void apply(DamageConsumptionCapability cap, float damage) {
+        table.apply(damage, cap::addConsumption);
+    }
+
+    private static void compile() {
+        List<double[]> tiers = new ArrayList<>();
+        for (String line : ModConfig.SEVERITY_TIERS.get()) {
+            try {
+                tiers.add(SeverityTable.parseTier(line));
+            } catch (IllegalArgumentException e) {
+                EmergencyEscapeMod.LOGGER.warn("Ignoring severity tier \"{}\": {}", line, e.getMessage());
+            }
+        }
+
+        if (tiers.isEmpty()) {
+            // Legacy settings: small damage from 0, large damage from the threshold
+            tiers.add(SeverityTable.legacyTier(0,
+                    ModConfig.SMALL_DAMAGE_INSTANT_DURATION.get(), ModConfig.SMALL_DAMAGE_INSTANT_INTERVAL.get(),
+                    ModConfig.SMALL_DAMAGE_INSTANT_ENABLED.get(), ModConfig.SMALL_DAMAGE_INSTANT_AMOUNT.get(),
+                    ModConfig.SMALL_DAMAGE_SUSTAINED_DURATION.get(), ModConfig.SMALL_DAMAGE_SUSTAINED_INTERVAL.get(),
+                    ModConfig.SMALL_DAMAGE_SUSTAINED_ENABLED.get(), ModConfig.SMALL_DAMAGE_SUSTAINED_AMOUNT.get()));
+            tiers.add(SeverityTable.legacyTier(ModConfig.LARGE_DAMAGE_THRESHOLD.get(),
+                    ModConfig.LARGE_DAMAGE_INSTANT_DURATION.get(), ModConfig.LARGE_DAMAGE_INSTANT_INTERVAL.get(),
+                    ModConfig.LARGE_DAMAGE_INSTANT_ENABLED.get(), ModConfig.LARGE_DAMAGE_INSTANT_AMOUNT.get(),
+                    ModConfig.LARGE_DAMAGE_SUSTAINED_DURATION.get(), ModConfig.LARGE_DAMAGE_SUSTAINED_INTERVAL.get(),
+                    ModConfig.LARGE_DAMAGE_SUSTAINED_ENABLED.get(), ModConfig.LARGE_DAMAGE_SUSTAINED_AMOUNT.get()));
+        }
+        table = SeverityTable.compile(tiers, ModConfig.SEVERITY_INTERPOLATE.get());
+    }
+}
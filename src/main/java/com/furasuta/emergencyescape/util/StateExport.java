@@ -0,0 +1,343 @@
+package com.furasuta.emergencyescape.util;
+
+import com.furasuta.emergencyescape.EmergencyEscapeMod;
+import com.furasuta.emergencyescape.capability.BodyPartHealthCapability;
+import com.furasuta.emergencyescape.capability.DamageConsumptionCapability;
+import com.furasuta.emergencyescape.capability.EmergencyEscapeCapability;
+import com.furasuta.emergencyescape.core.ConsumptionTimer;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exports the escape state of every enrolled player to world/emergencyescape/exports, as JSON
+ * or CSV, for audits and tournament review.
+ *
+ * The server thread only copies health, experience, escape state and timers into primitive
+ * arrays. Formatting and writing happen on a background thread, which reports progress back to
+ * the command source through the server's task queue. One export runs at a time.
+ */
+@Mod.EventBusSubscriber(modid = EmergencyEscapeMod.MODID)
+public class StateExport {
+
+    public enum Format {
+        JSON,
+        CSV
+    }
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.ROOT);
+    // Progress messages at every quarter of the players
+    private static final int PROGRESS_STEPS = 4;
+    // Below this many players the export finishes too fast for progress to be useful
+    private static final int PROGRESS_MIN_PLAYERS = 1000;
+
+    private static final AtomicBoolean running = new AtomicBoolean(false);
+    private static ExecutorService executor = null;
+
+    /**
+     * Primitive copy of the enrolled players, one index per player. Timers are flattened, a
+     * player's timers running from timerStart[i] to timerStart[i + 1].
+     */
+    private static class Snapshot {
+        final long gameTime;
+        final int count;
+        final long[] uuidMost, uuidLeast;
+        final String[] names;
+        final float[] headHealth, bodyHealth;
+        final int[] maxHeadHealth, maxBodyHealth;
+        final int[] experience;
+        final boolean[] escaping;
+        final int[] escapeTicksRemaining;
+        final int[] timerStart;
+        int timerCount = 0;
+        boolean[] timerLarge = new boolean[64];
+        boolean[] timerInstant = new boolean[64];
+        int[] timerRemaining = new int[64];
+        int[] timerInterval = new int[64];
+        int[] timerAmount = new int[64];
+
+        Snapshot(long gameTime, int capacity) {
+            this.gameTime = gameTime;
+            this.count = capacity;
+            uuidMost = new long[capacity];
+            uuidLeast = new long[capacity];
+            names = new String[capacity];
+            headHealth = new float[capacity];
+            bodyHealth = new float[capacity];
+            maxHeadHealth = new int[capacity];
+            maxBodyHealth = new int[capacity];
+            experience = new int[capacity];
+            escaping = new boolean[capacity];
+            escapeTicksRemaining = new int[capacity];
+            timerStart = new int[capacity + 1];
+        }
+
+        void addTimer(ConsumptionTimer timer) {
+            if (timerCount == timerAmount.length) {
+                int capacity = timerCount * 2;
+                timerLarge = Arrays.copyOf(timerLarge, capacity);
+                timerInstant = Arrays.copyOf(timerInstant, capacity);
+                timerRemaining = Arrays.copyOf(timerRemaining, capacity);
+                timerInterval = Arrays.copyOf(timerInterval, capacity);
+                timerAmount = Arrays.copyOf(timerAmount, capacity);
+            }
+            timerLarge[timerCount] = timer.isLargeDamage();
+            timerInstant[timerCount] = timer.isInstant();
+            timerRemaining[timerCount] = timer.getRemainingDuration();
+            timerInterval[timerCount] = timer.getIntervalTicks();
+            timerAmount[timerCount] = timer.getAmount();
+            timerCount++;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        if (executor == null) return;
+
+        // Let a running export finish, its snapshot no longer needs the server
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * Snapshots the enrolled players and starts writing them in the background.
+     *
+     * @return false if another export is still running
+     */
+    public static boolean start(MinecraftServer server, Format format, CommandSourceStack feedback) {
+        if (!running.compareAndSet(false, true)) return false;
+
+        // Until the background task owns the flag, any failure here has to release it
+        boolean handedOff = false;
+        try {
+            long startNanos = System.nanoTime();
+            Snapshot snapshot = capture(server);
+            long captureMicros = (System.nanoTime() - startNanos) / 1000;
+
+            Path directory = server.getWorldPath(LevelResource.ROOT).resolve(EmergencyEscapeMod.MODID).resolve("exports");
+            Path file = directory.resolve("state-" + FILE_TIME.format(LocalDateTime.now()) + "." + format.name().toLowerCase(Locale.ROOT));
+            feedback.sendSuccess(() -> Component.literal(String.format(Locale.ROOT,
+                    "Captured %d players in %.2f ms, writing %s", snapshot.count, captureMicros / 1000.0, file.getFileName())), true);
+
+            if (executor == null) {
+                executor = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "EmergencyEscape State Export");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            executor.execute(() -> {
+                try {
+                    long writeStart = System.nanoTime();
+                    write(snapshot, format, directory, file, server, feedback);
+                    long writeMillis = (System.nanoTime() - writeStart) / 1_000_000;
+                    server.execute(() -> feedback.sendSuccess(() -> Component.literal(String.format(Locale.ROOT,
+                            "Exported %d players to %s in %d ms", snapshot.count, file, writeMillis)), true));
+                } catch (IOException e) {
+                    EmergencyEscapeMod.LOGGER.error("Failed to export player state to {}", file, e);
+                    server.execute(() -> feedback.sendFailure(Component.literal("Export failed: " + e.getMessage())));
+                } finally {
+                    running.set(false);
+                }
+            });
+            handedOff = true;
+        } finally {
+            if (!handedOff) running.set(false);
+        }
+        return true;
+    }
+
+    // Server thread: capability reads and array stores only, no formatting
+    private static Snapshot capture(MinecraftServer server) {
+        List<ServerPlayer> players = server.getPlayerList().getPlayers();
+        Snapshot snapshot = new Snapshot(server.overworld().getGameTime(), countEnrolled(players));
+
+        int i = 0;
+        for (ServerPlayer player : players) {
+            BodyPartHealthCapability bodyParts = player.getCapability(BodyPartHealthCapability.CAPABILITY).orElse(null);
+            if (bodyParts == null || !bodyParts.isActive()) continue;
+
+            UUID uuid = player.getUUID();
+            snapshot.uuidMost[i] = uuid.getMostSignificantBits();
+            snapshot.uuidLeast[i] = uuid.getLeastSignificantBits();
+            snapshot.names[i] = player.getScoreboardName();
+            snapshot.headHealth[i] = bodyParts.getHeadHealth();
+            snapshot.bodyHealth[i] = bodyParts.getBodyHealth();
+            snapshot.maxHeadHealth[i] = bodyParts.getMaxHeadHealth();
+            snapshot.maxBodyHealth[i] = bodyParts.getMaxBodyHealth();
+            snapshot.experience[i] = DamageConsumptionCapability.getPlayerTotalExperience(player);
+
+            EmergencyEscapeCapability escape = player.getCapability(EmergencyEscapeCapability.CAPABILITY).orElse(null);
+            if (escape != null && escape.isEscaping()) {
+                snapshot.escaping[i] = true;
+                snapshot.escapeTicksRemaining[i] = escape.getEscapeTicksRemaining();
+            }
+
+            snapshot.timerStart[i] = snapshot.timerCount;
+            DamageConsumptionCapability consumption = player.getCapability(DamageConsumptionCapability.CAPABILITY).orElse(null);
+            if (consumption != null) {
+                List<ConsumptionTimer> timers = consumption.getActiveTimers();
+                for (int t = 0; t < timers.size(); t++) {
+                    snapshot.addTimer(timers.get(t));
+                }
+            }
+            i++;
+        }
+        snapshot.timerStart[snapshot.count] = snapshot.timerCount;
+        return snapshot;
+    }
+
+    private static int countEnrolled(List<ServerPlayer> players) {
+        int count = 0;
+        for (ServerPlayer player : players) {
+            BodyPartHealthCapability cap = player.getCapability(BodyPartHealthCapability.CAPABILITY).orElse(null);
+            if (cap != null && cap.isActive()) count++;
+        }
+        return count;
+    }
+
+    // Background thread: format into a temporary file and rename it into place when complete
+    private static void write(Snapshot snapshot, Format format, Path directory, Path file,
+                              MinecraftServer server, CommandSourceStack feedback) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int progressEvery = snapshot.count >= PROGRESS_MIN_PLAYERS ? snapshot.count / PROGRESS_STEPS : Integer.MAX_VALUE;
+
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            if (format == Format.JSON) {
+                out.write("{\"gameTime\":" + snapshot.gameTime + ",\"players\":[");
+            } else {
+                out.write("uuid,name,headHealth,maxHeadHealth,bodyHealth,maxBodyHealth,experience,escaping,escapeTicksRemaining,timers\n");
+            }
+
+            StringBuilder line = new StringBuilder(256);
+            for (int i = 0; i < snapshot.count; i++) {
+                line.setLength(0);
+                if (format == Format.JSON) {
+                    appendJson(line, snapshot, i);
+                } else {
+                    appendCsv(line, snapshot, i);
+                }
+                out.append(line);
+
+                if ((i + 1) % progressEvery == 0 && i + 1 < snapshot.count) {
+                    int done = i + 1;
+                    server.execute(() -> feedback.sendSuccess(() -> Component.literal(String.format(Locale.ROOT,
+                            "Export %d%% (%d/%d players)", done * 100 / snapshot.count, done, snapshot.count)), false));
+                }
+            }
+
+            if (format == Format.JSON) {
+                out.write("\n]}\n");
+            }
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void appendJson(StringBuilder sb, Snapshot s, int i) {
+        if (i > 0) sb.append(',');
+        sb.append("\n{\"uuid\":\"").append(new UUID(s.uuidMost[i], s.uuidLeast[i]))
+                .append("\",\"name\":");
+        appendJsonString(sb, s.names[i]);
+        sb.append(",\"headHealth\":").append(s.headHealth[i])
+                .append(",\"maxHeadHealth\":").append(s.maxHeadHealth[i])
+                .append(",\"bodyHealth\":").append(s.bodyHealth[i])
+                .append(",\"maxBodyHealth\":").append(s.maxBodyHealth[i])
+                .append(",\"experience\":").append(s.experience[i])
+                .append(",\"escaping\":").append(s.escaping[i])
+                .append(",\"escapeTicksRemaining\":").append(s.escapeTicksRemaining[i])
+                .append(",\"timers\":[");
+        for (int t = s.timerStart[i]; t < s.timerStart[i + 1]; t++) {
+            if (t > s.timerStart[i]) sb.append(',');
+            sb.append("{\"large\":").append(s.timerLarge[t])
+                    .append(",\"instant\":").append(s.timerInstant[t])
+                    .append(",\"remainingTicks\":").append(s.timerRemaining[t])
+                    .append(",\"intervalTicks\":").append(s.timerInterval[t])
+                    .append(",\"amount\":").append(s.timerAmount[t])
+                    .append('}');
+        }
+        sb.append("]}");
+    }
+
+    private static void appendCsv(StringBuilder sb, Snapshot s, int i) {
+        sb.append(new UUID(s.uuidMost[i], s.uuidLeast[i])).append(',')
+                .append(csvField(s.names[i])).append(',')
+                .append(s.headHealth[i]).append(',')
+                .append(s.maxHeadHealth[i]).append(',')
+                .append(s.bodyHealth[i]).append(',')
+                .append(s.maxBodyHealth[i]).append(',')
+                .append(s.experience[i]).append(',')
+                .append(s.escaping[i]).append(',')
+                .append(s.escapeTicksRemaining[i]).append(',');
+        // Timers in one column as size:phase:remaining/interval:amount, separated by spaces
+        for (int t = s.timerStart[i]; t < s.timerStart[i + 1]; t++) {
+            if (t > s.timerStart[i]) sb.append(' ');
+            sb.append(s.timerLarge[t] ? "large" : "small").append(':')
+                    .append(s.timerInstant[t] ? "instant" : "sustained").append(':')
+                    .append(s.timerRemaining[t]).append('/').append(s.timerInterval[t]).append(':')
+                    .append(s.timerAmount[t]);
+        }
+        sb.append('\n');
+    }
+
+    // Offline-mode servers and proxies accept names vanilla would not, so escape them anyway
+    private static void appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int c = 0; c < value.length(); c++) {
+            char ch = value.charAt(c);
+            switch (ch) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        sb.append(String.format(Locale.ROOT, "\\u%04x", (int) ch));
+                    } else {
+                        sb.append(ch);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    // Always quoted, inner quotes doubled as RFC 4180 expects
+    private static String csvField(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}